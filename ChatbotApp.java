@@ -1,39 +1,110 @@
+import weka.classifiers.Classifier;
 import weka.classifiers.Evaluation;
 import weka.classifiers.trees.J48;
 import com.formdev.flatlaf.FlatLightLaf;
+import com.yourcompany.app.Analysis;
+import com.yourcompany.app.BatchScorer;
+import com.yourcompany.app.ChatTranscript;
+import com.yourcompany.app.ColumnStatsEngine;
+import com.yourcompany.app.CommandMatcher;
+import com.yourcompany.app.CompiledJ48;
+import com.yourcompany.app.CorrelationHeatmap;
+import com.yourcompany.app.CorrelationMatrix;
+import com.yourcompany.app.CrossValidator;
+import com.yourcompany.app.DownsampledScatterPlot;
+import com.yourcompany.app.HistogramPanel;
+import com.yourcompany.app.IncrementalTrainer;
+import com.yourcompany.app.J48Tuner;
+import com.yourcompany.app.LazyTableModel;
+import com.yourcompany.app.ModelStore;
+import com.yourcompany.app.ResultCache;
+import com.yourcompany.app.SnapshotStore;
+import com.yourcompany.app.StreamingCsvReader;
+import com.yourcompany.app.StreamingHistogram;
+import com.yourcompany.app.TaskExecutor;
+import org.jfree.chart.ChartPanel;
+import weka.core.Instance;
 import weka.core.Instances;
-import weka.core.converters.CSVLoader;
+import weka.core.Utils;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 import javax.swing.table.JTableHeader;
+import javax.swing.table.TableModel;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import weka.gui.visualize.PlotData2D;
 import weka.gui.visualize.VisualizePanel;
 
 public class ChatbotApp extends JFrame {
-    private JPanel chatPanel;
+    private final ChatTranscript transcript = new ChatTranscript();
+    private JList<ChatTranscript.Entry> chatList;
     private JScrollPane scrollPane;
+    private JScrollPane liveTable;
+    private DefaultTableCellRenderer centerRenderer;
     private JTextField inputField;
     private JButton sendButton;
+    private JButton cancelButton;
+    private TaskExecutor taskExecutor;
+    private final ModelStore modelStore = ModelStore.defaultStore();
+    private final SnapshotStore snapshotStore = SnapshotStore.defaultStore();
+    private final ResultCache resultCache = new ResultCache(ResultCache.DEFAULT_MAX_ENTRIES);
+    /** Bumped whenever {@code data} is replaced or changed, so cached results are not reused. */
+    private long dataVersion;
     private J48 j48Classifier;
-    private Instances data;
+    private CompiledJ48 compiledJ48;
+    private volatile Instances data;
+    private volatile ColumnStatsEngine.ColumnStats[] streamedStats;
+    /** File behind a streamed dataset, re-read when a pass must cover every row rather than the sample. */
+    private volatile File streamedFile;
+    private File dataFile;
+    /** Data rows of dataFile that the loaded dataset and model cover. */
+    private long dataFileRows;
+    private IncrementalTrainer incrementalTrainer;
+    private Timer refreshTimer;
+    private Future<?> refreshTask;
     private static final Color PRIMARY_COLOR = new Color(52, 152, 219);
     private static final Color SECONDARY_COLOR = new Color(44, 62, 80);
     private static final Color USER_MESSAGE_COLOR = new Color(135, 206, 250); // Light Blue
     private static final Color BOT_MESSAGE_COLOR = new Color(240, 240, 240); // Light Gray
+    private static final long STREAMING_THRESHOLD_BYTES = 512L * 1024 * 1024;
+    private static final int MAX_IN_MEMORY_ROWS = 1_000_000;
+    private static final int MAX_TABLE_PREVIEW_ROWS = 10;
+    /** Above this many rows the scatter plot draws a resolution-sized sample instead of every point. */
+    private static final int DOWNSAMPLE_SCATTER_ROWS = 50_000;
+    private static final int REFRESH_INTERVAL_MS = 60_000;
     private static final String[] COMMANDS = {
             "visualize dataset",
             "statistics for all columns",
             "compare two columns",
             "predict",
-            "compare datasets"
+            "compare datasets",
+            "compile model",
+            "show data",
+            "histogram",
+            "watch dataset",
+            "evaluate model",
+            "tune model",
+            "correlation matrix"
     };
+    private static final CommandMatcher COMMAND_MATCHER = new CommandMatcher(COMMANDS, 3);
 
     public class RoundedButton extends JButton {
         private final int radius;
@@ -71,9 +142,6 @@ public class ChatbotApp extends JFrame {
         setupLookAndFeel();
         initializeComponents();
         loadDataset();
-        if (data != null) {
-            j48Classifier = trainJ48Classifier(data);
-        }
     }
 
     private void setupLookAndFeel() {
@@ -91,19 +159,56 @@ public class ChatbotApp extends JFrame {
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        chatPanel = new JPanel();
-        chatPanel.setLayout(new BoxLayout(chatPanel, BoxLayout.Y_AXIS));
-        chatPanel.setBackground(Color.WHITE);
+        chatList = new JList<>(transcript);
+        chatList.setCellRenderer(new TranscriptCellRenderer());
+        chatList.setBackground(Color.WHITE);
+        chatList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        chatList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = chatList.locationToIndex(e.getPoint());
+                if (index >= 0 && chatList.getCellBounds(index, index).contains(e.getPoint())) {
+                    showLiveTable(index);
+                } else {
+                    hideLiveTable();
+                }
+            }
+        });
+        transcript.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                hideLiveTable();
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+            }
+        });
+        chatList.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                hideLiveTable();
+            }
+        });
 
-        scrollPane = new JScrollPane(chatPanel);
+        scrollPane = new JScrollPane(chatList);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getViewport().addChangeListener(e -> hideLiveTable());
         add(scrollPane, BorderLayout.CENTER);
 
         JPanel inputPanel = createInputPanel();
         add(inputPanel, BorderLayout.SOUTH);
 
+        taskExecutor = new TaskExecutor(message -> addMessageToChat(message, false));
+        taskExecutor.setRunningCountListener(count -> cancelButton.setEnabled(count > 0));
+
         sendButton.addActionListener(e -> processUserInput());
         inputField.addActionListener(e -> processUserInput());
+        cancelButton.addActionListener(e -> taskExecutor.cancelAll());
     }
 
     private JPanel createInputPanel() {
@@ -140,6 +245,15 @@ public class ChatbotApp extends JFrame {
         gbc.gridy = 0;
         inputPanel.add(sendButton, gbc);
 
+        cancelButton = new RoundedButton("Cancel", 25);
+        cancelButton.setBackground(SECONDARY_COLOR);
+        cancelButton.setForeground(Color.WHITE);
+        cancelButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        cancelButton.setEnabled(false);
+        gbc.gridx = 3;
+        gbc.gridy = 0;
+        inputPanel.add(cancelButton, gbc);
+
         return inputPanel;
     }
 
@@ -153,6 +267,10 @@ public class ChatbotApp extends JFrame {
             addMessageToChat("Command not recognized. Please try again.", false);
             return;
         }
+        if (data == null && !command.equals("compare datasets")) {
+            addMessageToChat("No dataset is loaded yet. Please wait for loading to finish.", false);
+            return;
+        }
         switch (command) {
             case "visualize dataset":
                 visualizeDataset(data);
@@ -169,46 +287,232 @@ public class ChatbotApp extends JFrame {
             case "compare datasets":
                 compareDatasets();
                 break;
+            case "compile model":
+                compileModel();
+                break;
+            case "show data":
+                showData(data);
+                break;
+            case "histogram":
+                showHistogram(data);
+                break;
+            case "watch dataset":
+                watchDataset();
+                break;
+            case "evaluate model":
+                evaluateModel(data);
+                break;
+            case "tune model":
+                tuneModel(data);
+                break;
+            case "correlation matrix":
+                showCorrelationMatrix(data);
+                break;
             default:
                 addMessageToChat("Invalid command.", false);
         }
     }
 
     private void addMessageToChat(String message, boolean isUser) {
-        JPanel messagePanel = new JPanel();
-        messagePanel.setLayout(new BoxLayout(messagePanel, BoxLayout.Y_AXIS));
-        messagePanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        messagePanel.setBackground(isUser ? USER_MESSAGE_COLOR : BOT_MESSAGE_COLOR);
-
-        JLabel messageLabel = new JLabel("<html><p style='width: 400px;'>" + message + "</p></html>");
-        messageLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-        messageLabel.setForeground(Color.BLACK);
+        transcript.addMessage(message, isUser);
+        scrollToBottom();
+    }
 
-        messagePanel.add(messageLabel);
-        chatPanel.add(messagePanel);
-        chatPanel.revalidate();
-        scrollPane.getVerticalScrollBar().setValue(scrollPane.getVerticalScrollBar().getMaximum());
+    private ChatTranscript.Entry addProgressToChat(String message) {
+        ChatTranscript.Entry entry = transcript.addProgress(message);
+        scrollToBottom();
+        return entry;
     }
 
     private void addTableToChat(String[][] data, String[] columnNames) {
-        DefaultTableModel tableModel = new DefaultTableModel(data, columnNames);
-        JTable table = new JTable(tableModel);
+        addTableToChat(LazyTableModel.of(data, columnNames));
+    }
+
+    private void addTableToChat(TableModel table) {
+        transcript.addTable(table);
+        scrollToBottom();
+    }
+
+    /**
+     * Shows a live, scrollable table in the frame's popup layer over a table
+     * row of the transcript, so results taller than the rendered preview can
+     * be paged through. The list itself keeps no child components; the
+     * overlay is removed when the list scrolls, resizes or changes.
+     */
+    private void showLiveTable(int index) {
+        hideLiveTable();
+        ChatTranscript.Entry entry = transcript.getElementAt(index);
+        if (entry.getKind() != ChatTranscript.Kind.TABLE) {
+            return;
+        }
+        JTable table = new JTable(entry.getTable());
         styleTable(table);
+        liveTable = new JScrollPane(table);
+        Rectangle cell = chatList.getCellBounds(index, index);
+        Rectangle bounds = new Rectangle(cell.x + 10, cell.y + 10, cell.width - 20, cell.height - 20)
+                .intersection(chatList.getVisibleRect());
+        if (bounds.isEmpty()) {
+            liveTable = null;
+            return;
+        }
+        JLayeredPane layers = getLayeredPane();
+        liveTable.setBounds(SwingUtilities.convertRectangle(chatList, bounds, layers));
+        layers.add(liveTable, JLayeredPane.POPUP_LAYER);
+        liveTable.validate();
+        liveTable.repaint();
+    }
+
+    private void hideLiveTable() {
+        if (liveTable != null) {
+            JLayeredPane layers = getLayeredPane();
+            Rectangle bounds = liveTable.getBounds();
+            layers.remove(liveTable);
+            liveTable = null;
+            layers.repaint(bounds);
+        }
+    }
+
+    private void scrollToBottom() {
+        scrollPane.validate();
+        chatList.ensureIndexIsVisible(transcript.getSize() - 1);
+    }
+
+    /**
+     * Paints transcript entries with a few shared components, so only the rows
+     * on screen are ever rendered and no component is kept per message. Table
+     * entries are the exception: each gets a {@link TableCell}, built once and
+     * dropped with its entry, so laying out every row after an append costs a
+     * cached size per table rather than a restyled {@code JTable}.
+     */
+    private final class TranscriptCellRenderer implements ListCellRenderer<ChatTranscript.Entry> {
+        private final MessageCell messageCell = new MessageCell();
+        private final JPanel progressPanel = new JPanel(new BorderLayout(0, 5));
+        private final JLabel progressLabel = new JLabel();
+        private final JProgressBar progressBar = new JProgressBar(0, 100);
+        private final Map<ChatTranscript.Entry, TableCell> tableCells = new WeakHashMap<>();
 
-        // Calculate the preferred height of the table
-        int tableHeight = table.getRowHeight() * table.getRowCount() + table.getTableHeader().getPreferredSize().height;
+        TranscriptCellRenderer() {
+            progressPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            progressPanel.setBackground(BOT_MESSAGE_COLOR);
+            progressLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            progressLabel.setForeground(Color.BLACK);
+            progressBar.setStringPainted(true);
+            progressPanel.add(progressLabel, BorderLayout.NORTH);
+            progressPanel.add(progressBar, BorderLayout.CENTER);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends ChatTranscript.Entry> list,
+                ChatTranscript.Entry entry, int index, boolean isSelected, boolean cellHasFocus) {
+            switch (entry.getKind()) {
+                case TABLE:
+                    return tableCells.computeIfAbsent(entry, e -> new TableCell(e.getTable()));
+                case PROGRESS:
+                    progressLabel.setText(entry.getText());
+                    progressBar.setValue(entry.getProgress());
+                    return progressPanel;
+                default:
+                    messageCell.setEntry(entry);
+                    return messageCell;
+            }
+        }
+    }
 
-        JScrollPane tableScrollPane = new JScrollPane(table);
-        tableScrollPane.setPreferredSize(new Dimension(780, tableHeight));
+    /**
+     * The preview of one table entry, styled and measured once. Only the
+     * preview rows are painted, so a lazy model formats just those cells.
+     */
+    private final class TableCell extends JPanel {
+        private final Dimension size;
 
-        JPanel tablePanel = new JPanel(new BorderLayout());
-        tablePanel.setBackground(BOT_MESSAGE_COLOR);
-        tablePanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        tablePanel.add(tableScrollPane, BorderLayout.CENTER);
+        TableCell(TableModel model) {
+            super(new BorderLayout());
+            setBackground(BOT_MESSAGE_COLOR);
+            setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            JTable table = new JTable(model);
+            styleTable(table);
+            add(table.getTableHeader(), BorderLayout.NORTH);
+            add(table, BorderLayout.CENTER);
+            int rows = model.getRowCount();
+            int shownRows = Math.min(rows, MAX_TABLE_PREVIEW_ROWS);
+            int height = table.getTableHeader().getPreferredSize().height + shownRows * table.getRowHeight() + 20;
+            if (rows > shownRows) {
+                JLabel moreRowsLabel = new JLabel("Showing " + shownRows + " of " + rows + " rows. Click to scroll.");
+                moreRowsLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+                moreRowsLabel.setBorder(BorderFactory.createEmptyBorder(5, 0, 0, 0));
+                add(moreRowsLabel, BorderLayout.SOUTH);
+                height += moreRowsLabel.getPreferredSize().height;
+            }
+            size = new Dimension(table.getPreferredSize().width + 20, height);
+        }
 
-        chatPanel.add(tablePanel);
-        chatPanel.revalidate();
-        scrollPane.getVerticalScrollBar().setValue(scrollPane.getVerticalScrollBar().getMaximum());
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(size);
+        }
+    }
+
+    /**
+     * A message bubble that caches its size per entry: when the list lays out
+     * all rows after an append, it gets each height without re-parsing HTML.
+     */
+    private final class MessageCell extends JLabel {
+        private final Map<ChatTranscript.Entry, Dimension> sizes = new WeakHashMap<>();
+        private ChatTranscript.Entry entry;
+
+        MessageCell() {
+            setOpaque(true);
+            setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            setForeground(Color.BLACK);
+            setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        }
+
+        void setEntry(ChatTranscript.Entry entry) {
+            this.entry = entry;
+        }
+
+        private void showEntry() {
+            setText("<html><p style='width: 400px;'>" + entry.getText() + "</p></html>");
+            setBackground(entry.getKind() == ChatTranscript.Kind.USER ? USER_MESSAGE_COLOR : BOT_MESSAGE_COLOR);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            Dimension size = sizes.get(entry);
+            if (size == null || entry.getKind() == ChatTranscript.Kind.NOTICE) {
+                showEntry();
+                size = super.getPreferredSize();
+                sizes.put(entry, size);
+            }
+            return new Dimension(size);
+        }
+
+        @Override
+        public void paint(Graphics g) {
+            showEntry();
+            super.paint(g);
+        }
+
+        // Like DefaultListCellRenderer, skip the layout and repaint requests a renderer never needs.
+        @Override
+        public void invalidate() {
+        }
+
+        @Override
+        public void validate() {
+        }
+
+        @Override
+        public void revalidate() {
+        }
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+        }
+
+        @Override
+        public void repaint(Rectangle r) {
+        }
     }
 
     private void styleTable(JTable table) {
@@ -220,42 +524,17 @@ public class ChatbotApp extends JFrame {
         header.setBackground(PRIMARY_COLOR);
         header.setForeground(Color.WHITE);
 
-        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(JLabel.CENTER);
-
+        if (centerRenderer == null) {
+            centerRenderer = new DefaultTableCellRenderer();
+            centerRenderer.setHorizontalAlignment(JLabel.CENTER);
+        }
         for (int i = 0; i < table.getColumnCount(); i++) {
             table.getColumnModel().getColumn(i).setCellRenderer(centerRenderer);
         }
     }
 
     private String getClosestCommand(String userInput) {
-        int minDistance = Integer.MAX_VALUE;
-        String closestCommand = null;
-        for (String command : COMMANDS) {
-            int distance = levenshteinDistance(userInput, command);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closestCommand = command;
-            }
-        }
-        return minDistance <= 3 ? closestCommand : null;
-    }
-
-    private int levenshteinDistance(String a, String b) {
-        int[][] dp = new int[a.length() + 1][b.length() + 1];
-        for (int i = 0; i <= a.length(); i++) {
-            for (int j = 0; j <= b.length(); j++) { // Fixed loop condition here
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
-                            Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1));
-                }
-            }
-        }
-        return dp[a.length()][b.length()];
+        return COMMAND_MATCHER.closest(userInput);
     }
 
     private void loadDataset() {
@@ -264,24 +543,133 @@ public class ChatbotApp extends JFrame {
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
-            try {
-                CSVLoader loader = new CSVLoader();
-                loader.setSource(selectedFile);
-                data = loader.getDataSet();
-                if (data.classIndex() == -1) {
-                    data.setClassIndex(data.numAttributes() - 1);
+            addMessageToChat("Loading " + selectedFile.getName() + "...", false);
+            taskExecutor.submit("Loading dataset", progress -> {
+                Instances loaded;
+                ColumnStatsEngine.ColumnStats[] loadedStats = null;
+                long rowsInFile;
+                try {
+                    if (selectedFile.length() > STREAMING_THRESHOLD_BYTES) {
+                        StreamedDataset streamed = loadStreaming(selectedFile, progress);
+                        loaded = streamed.instances;
+                        loadedStats = streamed.stats;
+                        rowsInFile = streamed.rows;
+                    } else {
+                        loaded = snapshotStore.load(selectedFile).asInstances();
+                        rowsInFile = loaded.numInstances();
+                    }
+                } catch (Exception e) {
+                    progress.report("Error loading dataset. Please check the path and format.");
+                    throw e;
+                }
+                // The loaders ignore interrupts; a load cancelled meanwhile must not replace the current data.
+                progress.checkCancelled();
+                if (loaded.classIndex() == -1) {
+                    loaded.setClassIndex(loaded.numAttributes() - 1);
+                }
+                ColumnStatsEngine.ColumnStats[] fullStats = loadedStats;
+                File sourceFile = loadedStats != null ? selectedFile : null;
+                progress.publish(() -> {
+                    stopWatching();
+                    resultCache.invalidate(data);
+                    dataVersion++;
+                    data = loaded;
+                    streamedStats = fullStats;
+                    streamedFile = sourceFile;
+                    dataFile = selectedFile;
+                    dataFileRows = rowsInFile;
+                });
+                progress.report("Dataset loaded successfully.");
+                progress.checkCancelled();
+                return loadOrTrainJ48Classifier(selectedFile, loaded, progress);
+            }, j48 -> {
+                j48Classifier = j48;
+                compiledJ48 = null;
+                addMessageToChat(j48 != null ? "J48 classifier ready." : "Error training J48 classifier.", false);
+            });
+        }
+    }
+
+    /**
+     * Streams a file that is too large to materialize: statistics are
+     * accumulated over every row, while a uniform reservoir sample of at most
+     * MAX_IN_MEMORY_ROWS rows is kept in memory for training and plotting.
+     */
+    private StreamedDataset loadStreaming(File file, TaskExecutor.Progress progress) throws IOException {
+        // The class values come from a pre-pass, so a label first seen deep in the file is still trained on.
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, StreamingCsvReader.DEFAULT_SAMPLE_ROWS,
+                true)) {
+            Instances sample = reader.getStructure();
+            // Sketched here, since these statistics also back the column statistics table.
+            ColumnStatsEngine.Accumulator stats = new ColumnStatsEngine.Accumulator(sample, true);
+            Random random = new Random(1);
+            long seen = 0;
+            Instances batch;
+            while ((batch = reader.nextBatch(StreamingCsvReader.DEFAULT_BATCH_SIZE)) != null) {
+                stats.add(batch);
+                for (Instance instance : batch) {
+                    seen++;
+                    if (sample.numInstances() < MAX_IN_MEMORY_ROWS) {
+                        sample.add(instance);
+                    } else {
+                        long slot = (long) (random.nextDouble() * seen);
+                        if (slot < MAX_IN_MEMORY_ROWS) {
+                            sample.set((int) slot, instance);
+                        }
+                    }
+                }
+                if (seen % 1_000_000 < batch.numInstances()) {
+                    progress.report("Read " + seen + " rows...");
                 }
-                addMessageToChat("Dataset loaded successfully.", false);
+            }
+            progress.report("Streamed " + seen + " rows; keeping a sample of " + sample.numInstances()
+                    + " rows in memory for training and plotting.");
+            if (reader.unknownValues() > 0) {
+                progress.report(reader.unknownValues()
+                        + " values did not match the column types inferred from the first rows and were read as missing.");
+            }
+            return new StreamedDataset(sample, stats.finish(), seen);
+        }
+    }
+
+    /**
+     * Reuses the J48 model cached for this exact file content and option set,
+     * training and caching a new one only when there is none. A file that
+     * was tuned keeps its tuned options.
+     */
+    private J48 loadOrTrainJ48Classifier(File trainingFile, Instances data, TaskExecutor.Progress progress)
+            throws InterruptedException {
+        String[] options = Analysis.j48Options(modelStore, trainingFile);
+        String key = null;
+        try {
+            key = modelStore.key(trainingFile, options);
+            Classifier cached = modelStore.load(key);
+            if (cached instanceof J48) {
+                progress.report("Loaded cached J48 model for this dataset.");
+                return (J48) cached;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        progress.checkCancelled();
+        progress.report("Training J48 classifier...");
+        J48 j48 = trainJ48Classifier(data, options);
+        // J48 ignores interrupts, so a cancel during training is honoured here, before the model is cached.
+        progress.checkCancelled();
+        if (j48 != null && key != null) {
+            try {
+                modelStore.save(key, trainingFile, j48);
             } catch (Exception e) {
-                addMessageToChat("Error loading dataset. Please check the path and format.", false);
                 e.printStackTrace();
             }
         }
+        return j48;
     }
 
-    private J48 trainJ48Classifier(Instances data) {
+    private J48 trainJ48Classifier(Instances data, String[] options) {
         try {
             J48 j48 = new J48();
+            j48.setOptions(options);
             j48.buildClassifier(data);
             return j48;
         } catch (Exception e) {
@@ -295,6 +683,16 @@ public class ChatbotApp extends JFrame {
                 "Enter the index of the first numeric attribute to visualize:"));
         int attributeIndex2 = Integer.parseInt(JOptionPane.showInputDialog(this,
                 "Enter the index of the second numeric attribute to visualize:"));
+        if (data.numInstances() > DOWNSAMPLE_SCATTER_ROWS) {
+            DownsampledScatterPlot plot = new DownsampledScatterPlot(data, attributeIndex1, attributeIndex2,
+                    "Scatter Plot");
+            JFrame frame = new JFrame("Scatter Plot");
+            frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            frame.setSize(800, 600);
+            frame.add(plot.getChartPanel(), BorderLayout.CENTER);
+            frame.setVisible(true);
+            return;
+        }
         try {
             PlotData2D plotData = new PlotData2D(data);
             plotData.setPlotName("Scatter Plot");
@@ -317,28 +715,81 @@ public class ChatbotApp extends JFrame {
     }
 
     private void displayAllColumnStats(Instances data) {
-        String[][] statsData = new String[data.numAttributes()][];
-        String[] columnNames = { "Attribute", "Type", "Minimum", "Maximum", "Mean", "Std Dev" };
-        for (int i = 0; i < data.numAttributes(); i++) {
-            String[] statsRow = new String[6];
-            statsRow[0] = data.attribute(i).name();
-            if (data.attribute(i).isNumeric()) {
-                double[] stats = calculateColumnStats(data, i);
-                statsRow[1] = "Numeric";
-                statsRow[2] = String.valueOf(stats[0]);
-                statsRow[3] = String.valueOf(stats[1]);
-                statsRow[4] = String.valueOf(stats[2]);
-                statsRow[5] = String.valueOf(stats[3]);
-            } else {
-                statsRow[1] = "Nominal";
-                statsRow[2] = "-";
-                statsRow[3] = "-";
-                statsRow[4] = "-";
-                statsRow[5] = String.valueOf(data.attributeStats(i).nominalCounts.length);
-            }
-            statsData[i] = statsRow;
+        submitCached("Column statistics", ResultCache.key(data, dataVersion, "statistics"),
+                progress -> buildColumnStatsTable(data, statsFor(data, true)), this::addTableToChat);
+    }
+
+    /**
+     * Submits {@code task} unless the same command already ran on this
+     * version of the dataset, in which case its result is shown right away.
+     */
+    private <T> void submitCached(String name, ResultCache.Key key, TaskExecutor.Task<T> task,
+            Consumer<? super T> onSuccess) {
+        T cached = resultCache.get(key);
+        if (cached != null) {
+            onSuccess.accept(cached);
+            return;
+        }
+        taskExecutor.submit(name, progress -> {
+            T result = task.call(progress);
+            resultCache.put(key, result);
+            return result;
+        }, onSuccess);
+    }
+
+    private TableModel buildColumnStatsTable(Instances data, ColumnStatsEngine.ColumnStats[] stats) {
+        return LazyTableModel.forColumnStats(data, stats);
+    }
+
+    private void showData(Instances data) {
+        addMessageToChat(data.numInstances() + " rows. Click the table to scroll through them.", false);
+        addTableToChat(LazyTableModel.forInstances(data));
+    }
+
+    /**
+     * Builds the histogram in one pass without copying the column; a streamed
+     * dataset is re-read batch by batch so the histogram covers every row.
+     */
+    private void showHistogram(Instances data) {
+        String input = JOptionPane.showInputDialog(this, "Enter the index of the numeric attribute:");
+        if (input == null) {
+            return;
+        }
+        int attributeIndex;
+        try {
+            attributeIndex = Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            addMessageToChat("Please enter a valid attribute index.", false);
+            return;
+        }
+        if (attributeIndex < 0 || attributeIndex >= data.numAttributes() || !data.attribute(attributeIndex).isNumeric()) {
+            addMessageToChat("Attribute " + attributeIndex + " is not a numeric column.", false);
+            return;
         }
-        addTableToChat(statsData, columnNames);
+        File file = streamedFile;
+        String attributeName = data.attribute(attributeIndex).name();
+        ResultCache.Key key = ResultCache.key(data, dataVersion, "histogram", attributeIndex);
+        submitCached("Histogram of " + attributeName, key, progress -> {
+            StreamingHistogram histogram = new StreamingHistogram();
+            if (file == null) {
+                histogram.add(data, attributeIndex);
+                return histogram;
+            }
+            try (StreamingCsvReader reader = new StreamingCsvReader(file, data)) {
+                Instances batch;
+                while ((batch = reader.nextBatch(StreamingCsvReader.DEFAULT_BATCH_SIZE)) != null) {
+                    progress.checkCancelled();
+                    histogram.add(batch, attributeIndex);
+                }
+            }
+            return histogram;
+        }, histogram -> {
+            JFrame frame = new JFrame("Histogram");
+            frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            frame.setSize(800, 600);
+            frame.add(new HistogramPanel(histogram, attributeName), BorderLayout.CENTER);
+            frame.setVisible(true);
+        });
     }
 
     private void compareTwoColumns(Instances data) {
@@ -355,63 +806,131 @@ public class ChatbotApp extends JFrame {
             addMessageToChat("Error: Both columns must be numeric for comparison.", false);
             return;
         }
-        double[] stats1 = calculateColumnStats(data, column1Index);
-        double[] stats2 = calculateColumnStats(data, column2Index);
-        String[][] comparisonData = {
-                { "Minimum", String.valueOf(stats1[0]), String.valueOf(stats2[0]) },
-                { "Maximum", String.valueOf(stats1[1]), String.valueOf(stats2[1]) },
-                { "Mean", String.valueOf(stats1[2]), String.valueOf(stats2[2]) },
-                { "Std Dev", String.valueOf(stats1[3]), String.valueOf(stats2[3]) }
-        };
         String[] columnNames = { "Statistic", data.attribute(column1Index).name(),
                 data.attribute(column2Index).name() };
-        addTableToChat(comparisonData, columnNames);
+        ResultCache.Key key = ResultCache.key(data, dataVersion, "compare", column1Index, column2Index);
+        submitCached("Column comparison", key, progress -> {
+            double[] stats1 = calculateColumnStats(data, column1Index);
+            double[] stats2 = calculateColumnStats(data, column2Index);
+            return new String[][] {
+                    { "Minimum", String.valueOf(stats1[0]), String.valueOf(stats2[0]) },
+                    { "Maximum", String.valueOf(stats1[1]), String.valueOf(stats2[1]) },
+                    { "Mean", String.valueOf(stats1[2]), String.valueOf(stats2[2]) },
+                    { "Std Dev", String.valueOf(stats1[3]), String.valueOf(stats2[3]) }
+            };
+        }, comparisonData -> addTableToChat(comparisonData, columnNames));
+    }
+
+    /**
+     * Pearson and Spearman correlations and covariances of every pair of
+     * numeric columns, shown as heatmaps and as a table of pairs.
+     */
+    private void showCorrelationMatrix(Instances data) {
+        ResultCache.Key key = ResultCache.key(data, dataVersion, "correlation");
+        submitCached("Correlation matrix", key, progress -> CorrelationMatrix.compute(data), result -> {
+            if (result.names.length < 2) {
+                addMessageToChat("The dataset needs at least two numeric columns for a correlation matrix.", false);
+                return;
+            }
+            JTabbedPane tabs = new JTabbedPane();
+            tabs.addTab("Pearson", new ChartPanel(
+                    CorrelationHeatmap.createChart("Pearson correlation", result.names, result.pearson)));
+            tabs.addTab("Spearman", new ChartPanel(
+                    CorrelationHeatmap.createChart("Spearman correlation", result.names, result.spearman)));
+            JFrame frame = new JFrame("Correlation Matrix");
+            frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            frame.setSize(800, 700);
+            frame.add(tabs, BorderLayout.CENTER);
+            frame.setVisible(true);
+            addTableToChat(Analysis.correlationTable(result));
+        });
     }
 
     private double[] calculateColumnStats(Instances data, int columnIndex) {
         if (data.attribute(columnIndex).isNumeric()) {
-            double min = data.attributeStats(columnIndex).numericStats.min;
-            double max = data.attributeStats(columnIndex).numericStats.max;
-            double mean = data.attributeStats(columnIndex).numericStats.mean;
-            double stdDev = data.attributeStats(columnIndex).numericStats.stdDev;
-            return new double[] { min, max, mean, stdDev };
+            return statsFor(data, false)[columnIndex].toArray();
         } else {
             return null;
         }
     }
 
+    private ColumnStatsEngine.ColumnStats[] statsFor(Instances dataset, boolean sketches) {
+        ColumnStatsEngine.ColumnStats[] stats = streamedStats;
+        if (dataset == data && stats != null) {
+            return stats;
+        }
+        return ColumnStatsEngine.getStats(dataset, sketches);
+    }
+
     private void compareDatasets() {
         int numDatasets = Integer
                 .parseInt(JOptionPane.showInputDialog(this, "Enter the number of datasets to compare:"));
-        List<Instances> datasets = new ArrayList<>();
+        List<File> selectedFiles = new ArrayList<>();
         for (int i = 0; i < numDatasets; i++) {
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setDialogTitle("Select Dataset " + (i + 1));
             int result = fileChooser.showOpenDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
-                File selectedFile = fileChooser.getSelectedFile();
-                try {
-                    CSVLoader loader = new CSVLoader();
-                    loader.setSource(selectedFile);
-                    Instances dataset = loader.getDataSet();
-                    datasets.add(dataset);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+                selectedFiles.add(fileChooser.getSelectedFile());
             }
         }
 
-        for (int i = 0; i < datasets.size(); i++) {
-            addMessageToChat("Column Names for Dataset " + (i + 1) + ":", false);
-            String[][] columnData = new String[datasets.get(i).numAttributes()][2];
-            for (int j = 0; j < datasets.get(i).numAttributes(); j++) {
-                columnData[j][0] = String.valueOf(j);
-                columnData[j][1] = datasets.get(i).attribute(j).name();
-            }
-            String[] columnNames = { "Index", "Name" };
-            addTableToChat(columnData, columnNames);
+        if (selectedFiles.isEmpty()) {
+            addMessageToChat("No datasets were selected.", false);
+            return;
         }
 
+        // Each file is streamed on its own pool thread, and one pass computes the stats of every
+        // column, so any (dataset, column) pair asked for later is a lookup. Columns are shown as
+        // soon as each file is done; the comparisons start once the last one finishes, failed or not.
+        StreamedDataset[] datasets = new StreamedDataset[selectedFiles.size()];
+        int[] remaining = { selectedFiles.size() };
+        for (int i = 0; i < selectedFiles.size(); i++) {
+            File selectedFile = selectedFiles.get(i);
+            int datasetIndex = i;
+            taskExecutor.submit("Loading " + selectedFile.getName(), progress -> {
+                try (StreamingCsvReader reader = new StreamingCsvReader(selectedFile)) {
+                    ColumnStatsEngine.ColumnStats[] stats = ColumnStatsEngine.compute(reader,
+                            StreamingCsvReader.DEFAULT_BATCH_SIZE, true);
+                    if (reader.unknownValues() > 0) {
+                        progress.report(selectedFile.getName() + ": " + reader.unknownValues()
+                                + " values did not match the column types inferred from the first rows and were read as missing.");
+                    }
+                    return new StreamedDataset(reader.getStructure(), stats, reader.rowsRead());
+                } catch (IOException e) {
+                    progress.checkCancelled();
+                    e.printStackTrace();
+                    progress.report("Error loading " + selectedFile.getName() + ": " + e.getMessage());
+                    return null;
+                }
+            }, dataset -> {
+                datasets[datasetIndex] = dataset;
+                if (dataset != null) {
+                    showDatasetColumns(datasetIndex, selectedFile, dataset.instances);
+                }
+            }, () -> {
+                if (--remaining[0] > 0) {
+                    return;
+                }
+                if (Arrays.stream(datasets).allMatch(d -> d == null)) {
+                    addMessageToChat("None of the datasets could be loaded.", false);
+                } else {
+                    compareLoadedDatasets(Arrays.asList(datasets), numDatasets);
+                }
+            });
+        }
+    }
+
+    private void showDatasetColumns(int datasetIndex, File file, Instances header) {
+        addMessageToChat("Column Names for Dataset " + (datasetIndex + 1) + " (" + file.getName() + "):", false);
+        String[] columnNames = { "Index", "Name" };
+        addTableToChat(new LazyTableModel(columnNames, header.numAttributes(),
+                (row, column) -> column == 0 ? String.valueOf(row) : header.attribute(row).name()));
+    }
+
+    /** Asks for the column pairs to compare; datasets that failed to load are null. */
+    private void compareLoadedDatasets(List<StreamedDataset> datasets, int numDatasets) {
+
         int numOfColumns = Integer
                 .parseInt(JOptionPane.showInputDialog(this, "How many column comparisons would you like to do?"));
         for (int i = 0; i < numOfColumns; i++) {
@@ -432,65 +951,263 @@ public class ChatbotApp extends JFrame {
                 columnIndices.add(columnIndex);
             }
 
-            String[][] comparisonData = new String[numOfColumnsToCompare][5];
+            List<String[]> comparisonData = new ArrayList<>();
+            Map<String, List<ColumnStatsEngine.ColumnStats>> byName = new LinkedHashMap<>();
             for (int j = 0; j < numOfColumnsToCompare; j++) {
-                if (datasetIndices.get(j) < 0 || datasetIndices.get(j) >= numDatasets || columnIndices.get(j) < 0
-                        || columnIndices.get(j) >= datasets.get(datasetIndices.get(j)).numAttributes()) {
+                if (datasetIndices.get(j) < 0 || datasetIndices.get(j) >= datasets.size()
+                        || datasets.get(datasetIndices.get(j)) == null || columnIndices.get(j) < 0
+                        || columnIndices.get(j) >= datasets.get(datasetIndices.get(j)).instances.numAttributes()) {
                     addMessageToChat("Error: Invalid dataset or column index.", false);
                     return;
                 }
 
-                if (!datasets.get(datasetIndices.get(j)).attribute(columnIndices.get(j)).isNumeric()) {
+                StreamedDataset dataset = datasets.get(datasetIndices.get(j));
+                if (!dataset.instances.attribute(columnIndices.get(j)).isNumeric()) {
                     addMessageToChat("Error: All columns must be numeric for comparison.", false);
                     return;
                 }
 
-                double[] stats = calculateColumnStats(datasets.get(datasetIndices.get(j)), columnIndices.get(j));
-                comparisonData[j][0] = datasets.get(datasetIndices.get(j)).attribute(columnIndices.get(j)).name()
-                        + " (Dataset " + (datasetIndices.get(j) + 1) + ")";
-                comparisonData[j][1] = String.valueOf(stats[0]);
-                comparisonData[j][2] = String.valueOf(stats[1]);
-                comparisonData[j][3] = String.valueOf(stats[2]);
-                comparisonData[j][4] = String.valueOf(stats[3]);
+                ColumnStatsEngine.ColumnStats stats = dataset.stats[columnIndices.get(j)];
+                String name = dataset.instances.attribute(columnIndices.get(j)).name();
+                byName.computeIfAbsent(name, n -> new ArrayList<>()).add(stats);
+                comparisonData.add(comparisonRow(name + " (Dataset " + (datasetIndices.get(j) + 1) + ")", stats));
             }
-            String[] columnNames = { "Column", "Minimum", "Maximum", "Mean", "Std Dev" };
-            addTableToChat(comparisonData, columnNames);
+            // A column picked from several files also gets a row for all of its rows; the sketches of
+            // every file merge, so the combined quantiles cover them without re-reading the files.
+            for (Map.Entry<String, List<ColumnStatsEngine.ColumnStats>> entry : byName.entrySet()) {
+                if (entry.getValue().size() > 1) {
+                    comparisonData.add(comparisonRow(entry.getKey() + " (All)",
+                            ColumnStatsEngine.combine(entry.getValue())));
+                }
+            }
+            String[] columnNames = { "Column", "Minimum", "Maximum", "Mean", "Std Dev", "Median", "90th Percentile",
+                    "Distinct Values" };
+            addTableToChat(comparisonData.toArray(new String[0][]), columnNames);
+        }
+    }
+
+    private static String[] comparisonRow(String name, ColumnStatsEngine.ColumnStats stats) {
+        return new String[] { name, String.valueOf(stats.min), String.valueOf(stats.max), String.valueOf(stats.mean),
+                String.valueOf(stats.stdDev), String.valueOf(stats.quantile(0.5)), String.valueOf(stats.quantile(0.9)),
+                String.valueOf(stats.distinctCount()) };
+    }
+
+    /**
+     * Flattens the trained tree into primitive arrays; later predictions use
+     * the compiled scorer, which gives the same results as J48.
+     */
+    private void compileModel() {
+        if (j48Classifier == null) {
+            addMessageToChat("The J48 classifier is not trained yet.", false);
+            return;
+        }
+        try {
+            compiledJ48 = CompiledJ48.compile(j48Classifier);
+            addMessageToChat("Compiled the J48 tree into " + compiledJ48.numNodes()
+                    + " flat nodes. Predictions will use the compiled model.", false);
+        } catch (Exception e) {
+            e.printStackTrace();
+            addMessageToChat("Error compiling the J48 classifier: " + e.getMessage(), false);
+        }
+    }
+
+    /**
+     * Cross-validates J48 with the options of the current model, training and
+     * scoring the folds concurrently.
+     */
+    private void evaluateModel(Instances data) {
+        if (j48Classifier == null) {
+            addMessageToChat("The J48 classifier is not trained yet.", false);
+            return;
+        }
+        String[] options = j48Classifier.getOptions();
+        int folds = Math.min(CrossValidator.DEFAULT_FOLDS, data.numInstances());
+        addMessageToChat("Running " + folds + "-fold cross-validation of J48...", false);
+        ResultCache.Key key = ResultCache.key(data, dataVersion, "evaluate", Utils.joinOptions(options), folds);
+        submitCached("Cross-validation", key, progress -> {
+            J48 template = new J48();
+            template.setOptions(options);
+            long start = System.nanoTime();
+            Evaluation eval = CrossValidator.crossValidate(template, data, folds, 1);
+            return String.format("%d-fold cross-validation took %.1f s.%n", folds, (System.nanoTime() - start) / 1e9)
+                    + eval.toSummaryString() + "\n" + eval.toMatrixString() + "\n" + eval.toClassDetailsString();
+        }, report -> addMessageToChat(report, false));
+    }
+
+    /**
+     * Searches J48's pruning confidence, minimum leaf size, pruning and binary
+     * splits by cross-validation, candidates and folds running concurrently,
+     * then installs and caches the best model. Later loads of the same file
+     * reuse the tuned options.
+     */
+    private void tuneModel(Instances data) {
+        File trainingFile = dataFile;
+        List<String[]> candidates = J48Tuner.grid();
+        int folds = Math.min(CrossValidator.DEFAULT_FOLDS, data.numInstances());
+        addMessageToChat("Tuning J48 over " + candidates.size() + " option sets with " + folds
+                + "-fold cross-validation...", false);
+        taskExecutor.submit("J48 tuning", progress -> Analysis.tuneJ48(modelStore, trainingFile, data, candidates,
+                folds), tuning -> {
+            if (refreshTimer != null) {
+                stopWatching();
+                addMessageToChat("Stopped watching the dataset; run 'watch dataset' again to keep the tuned model"
+                        + " up to date.", false);
+            }
+            j48Classifier = tuning.best;
+            compiledJ48 = null;
+            addTableToChat(Analysis.tuningResults(tuning.results));
+            addMessageToChat("Installed J48 " + tuning.results.get(0).describe() + " ("
+                    + String.format("%.2f", tuning.results.get(0).accuracy()) + "% accuracy).", false);
+        });
+    }
+
+    /**
+     * Toggles watching the loaded file for appended rows. While watching, the
+     * file is checked every minute and J48 is retrained in the background on
+     * a window of the most recent rows; predictions use the previous model
+     * until the new one is ready.
+     */
+    private void watchDataset() {
+        if (refreshTimer != null) {
+            stopWatching();
+            addMessageToChat("Stopped watching the dataset for new rows.", false);
+            return;
+        }
+        if (j48Classifier == null) {
+            addMessageToChat("The J48 classifier is not trained yet.", false);
+            return;
         }
+        File file = dataFile;
+        Instances training = data;
+        J48 current = j48Classifier;
+        long rowsInFile = dataFileRows;
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refreshModel());
+        taskExecutor.submit("Watching " + file.getName(),
+                progress -> new IncrementalTrainer(file, training, current, rowsInFile,
+                        IncrementalTrainer.DEFAULT_WINDOW_ROWS),
+                trainer -> {
+                    if (refreshTimer == null) {
+                        return;
+                    }
+                    incrementalTrainer = trainer;
+                    refreshTimer.start();
+                    addMessageToChat("Watching " + file.getName() + " for new rows. The model will be retrained on the"
+                            + " latest " + IncrementalTrainer.DEFAULT_WINDOW_ROWS + " rows when rows are appended.",
+                            false);
+                });
+    }
+
+    private void refreshModel() {
+        if (incrementalTrainer == null || (refreshTask != null && !refreshTask.isDone())) {
+            return;
+        }
+        IncrementalTrainer trainer = incrementalTrainer;
+        refreshTask = taskExecutor.submit("Model refresh", progress -> trainer.refresh(), added -> {
+            if (added == 0 || trainer != incrementalTrainer) {
+                return;
+            }
+            j48Classifier = (J48) trainer.model();
+            if (compiledJ48 != null) {
+                try {
+                    compiledJ48 = CompiledJ48.compile(j48Classifier);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    compiledJ48 = null;
+                }
+            }
+            addMessageToChat("Retrained J48 with " + added + " new rows (" + trainer.rows() + " rows in "
+                    + dataFile.getName() + ").", false);
+        });
+    }
+
+    private void stopWatching() {
+        if (refreshTimer != null) {
+            refreshTimer.stop();
+            refreshTimer = null;
+        }
+        incrementalTrainer = null;
     }
 
     private void predictWithJ48(Instances data) {
+        if (j48Classifier == null) {
+            addMessageToChat("The J48 classifier is not trained yet.", false);
+            return;
+        }
+        Classifier classifier = compiledJ48 != null ? compiledJ48 : j48Classifier;
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Select Unlabelled Dataset");
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
-            try {
-                CSVLoader loader = new CSVLoader();
-                loader.setSource(selectedFile);
-                Instances newData = loader.getDataSet();
-                if (newData.classIndex() == -1 && newData.numAttributes() > 0) {
-                    newData.setClassIndex(newData.numAttributes() - 1);
+            JFileChooser saveChooser = new JFileChooser(selectedFile.getParentFile());
+            saveChooser.setDialogTitle("Save Predictions As (.csv or .arff)");
+            saveChooser.setSelectedFile(new File(selectedFile.getParentFile(),
+                    selectedFile.getName().replaceFirst("\\.[^.]*$", "") + "-predictions.csv"));
+            if (saveChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            File outputFile = saveChooser.getSelectedFile();
+            long fileSize = Math.max(1, selectedFile.length());
+            ChatTranscript.Entry progressEntry = addProgressToChat("Scoring " + selectedFile.getName() + "...");
+            taskExecutor.submit("Prediction", progress -> {
+                long start = System.nanoTime();
+                Evaluation eval = new Evaluation(data);
+                BatchScorer.Summary summary;
+                try (StreamingCsvReader reader = new StreamingCsvReader(selectedFile, data)) {
+                    BatchScorer scorer = new BatchScorer(classifier, data);
+                    summary = scorer.score(reader, outputFile, (batch, distributions, rowsScored) -> {
+                        for (int i = 0; i < distributions.length; i++) {
+                            eval.evaluateModelOnceAndRecordPrediction(distributions[i], batch.instance(i));
+                        }
+                        int percent = (int) Math.min(100, reader.bytesRead() * 100 / fileSize);
+                        progress.publish(() -> transcript.setProgress(progressEntry, percent));
+                    });
                 }
-                StringBuilder predictionsBuilder = new StringBuilder();
-                predictionsBuilder.append("Predictions for the new unlabelled dataset:\n");
-                for (int i = 0; i < newData.numInstances(); i++) {
-                    double predictedClass = j48Classifier.classifyInstance(newData.instance(i));
-                    predictionsBuilder.append("Instance ").append(i + 1).append(": Predicted class - ")
-                            .append(data.classAttribute().value((int) predictedClass)).append("\n");
+                String metrics = eval.toSummaryString() + "\n" + eval.toMatrixString() + "\n"
+                        + eval.toClassDetailsString() + "\n";
+                return new PredictionOutput(summary, (System.nanoTime() - start) / 1e9, metrics);
+            }, output -> {
+                transcript.setProgress(progressEntry, 100);
+                addMessageToChat(String.format("Scored %d instances in %.1f s. Predictions written to %s.",
+                        output.summary.rowsScored, output.seconds, outputFile.getAbsolutePath()), false);
+                String[][] countData = new String[data.classAttribute().numValues() + 1][2];
+                for (int k = 0; k < data.classAttribute().numValues(); k++) {
+                    countData[k][0] = data.classAttribute().value(k);
+                    countData[k][1] = String.valueOf(output.summary.classCounts[k]);
                 }
-                Evaluation eval = new Evaluation(data);
-                eval.evaluateModel(j48Classifier, newData);
+                countData[countData.length - 1][0] = "Unclassified";
+                countData[countData.length - 1][1] = String.valueOf(output.summary.unclassified);
+                addTableToChat(countData, new String[] { "Predicted Class", "Instances" });
                 int response = JOptionPane.showConfirmDialog(this, "Do you want to see evaluation metrics?",
                         "Evaluation Metrics", JOptionPane.YES_NO_OPTION);
                 if (response == JOptionPane.YES_OPTION) {
-                    predictionsBuilder.append(eval.toSummaryString()).append("\n");
-                    predictionsBuilder.append(eval.toMatrixString()).append("\n");
-                    predictionsBuilder.append(eval.toClassDetailsString()).append("\n");
+                    addMessageToChat(output.metrics, false);
                 }
-                addMessageToChat(predictionsBuilder.toString(), false);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            });
+        }
+    }
+
+    private static final class StreamedDataset {
+        private final Instances instances;
+        private final ColumnStatsEngine.ColumnStats[] stats;
+        private final long rows;
+
+        StreamedDataset(Instances instances, ColumnStatsEngine.ColumnStats[] stats, long rows) {
+            this.instances = instances;
+            this.stats = stats;
+            this.rows = rows;
+        }
+    }
+
+    private static final class PredictionOutput {
+        private final BatchScorer.Summary summary;
+        private final double seconds;
+        private final String metrics;
+
+        PredictionOutput(BatchScorer.Summary summary, double seconds, String metrics) {
+            this.summary = summary;
+            this.seconds = seconds;
+            this.metrics = metrics;
         }
     }
 
@@ -0,0 +1,51 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.ChatTranscript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending messages to the chat transcript. Once the transcript is full
+ * every append also spills the oldest message to disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChatAppendBenchmark {
+    private ChatTranscript transcript;
+    private File spillFile;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void createTranscript() throws IOException {
+        spillFile = File.createTempFile("chat-benchmark-", ".txt");
+        transcript = new ChatTranscript(ChatTranscript.DEFAULT_MAX_ENTRIES, spillFile);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSpillFile() {
+        transcript.close();
+        spillFile.delete();
+    }
+
+    @Benchmark
+    public ChatTranscript.Entry appendMessage() {
+        next++;
+        return transcript.addMessage("Message " + next, (next & 1) == 0);
+    }
+}
@@ -0,0 +1,92 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.CommandMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching chat input to a command: the BK-tree lookup the app uses against
+ * the scan it replaced, which filled a full edit-distance matrix for every
+ * command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CommandMatchBenchmark {
+    private static final String[] COMMANDS = {
+            "visualize dataset",
+            "statistics for all columns",
+            "compare two columns",
+            "predict",
+            "compare datasets",
+            "compile model",
+            "show data",
+            "histogram"
+    };
+    private static final String[] INPUTS = {
+            "predict",
+            "visualise dataset",
+            "statistics for al columns",
+            "compare two colums",
+            "show the data please",
+            "histgram",
+            "what can you do?"
+    };
+
+    private final CommandMatcher matcher = new CommandMatcher(COMMANDS, 3);
+    private int next;
+
+    private String nextInput() {
+        String input = INPUTS[next];
+        next = (next + 1) % INPUTS.length;
+        return input;
+    }
+
+    @Benchmark
+    public String getClosestCommand() {
+        return matcher.closest(nextInput());
+    }
+
+    @Benchmark
+    public String levenshteinScan() {
+        String input = nextInput();
+        String best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (String command : COMMANDS) {
+            int distance = levenshteinDistance(input, command);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = command;
+            }
+        }
+        return bestDistance <= 3 ? best : null;
+    }
+
+    /** The app's original edit distance, kept here as the baseline. */
+    private static int levenshteinDistance(String a, String b) {
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0) {
+                    dp[i][j] = j;
+                } else if (j == 0) {
+                    dp[i][j] = i;
+                } else {
+                    dp[i][j] = Math.min(dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                            Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1));
+                }
+            }
+        }
+        return dp[a.length()][b.length()];
+    }
+}
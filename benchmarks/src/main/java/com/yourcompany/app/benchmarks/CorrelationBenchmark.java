@@ -0,0 +1,62 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.ColumnarDataset;
+import com.yourcompany.app.CorrelationMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** The "correlation matrix" command over columnar data with correlated Gaussian columns. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CorrelationBenchmark {
+    @Param({ "100000", "1000000" })
+    public int rows;
+
+    @Param({ "20", "200" })
+    public int columns;
+
+    private Instances data;
+
+    @Setup(Level.Trial)
+    public void createData() {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        for (int c = 0; c < columns; c++) {
+            attributes.add(new Attribute("x" + c));
+        }
+        Instances rowData = new Instances("correlation", attributes, rows);
+        Random random = new Random(42);
+        for (int r = 0; r < rows; r++) {
+            double base = random.nextGaussian();
+            double[] values = new double[columns];
+            for (int c = 0; c < columns; c++) {
+                values[c] = base * (c % 5) + random.nextGaussian();
+            }
+            rowData.add(new DenseInstance(1, values));
+        }
+        data = ColumnarDataset.of(rowData).asInstances();
+    }
+
+    @Benchmark
+    public CorrelationMatrix.Result correlationMatrix() throws Exception {
+        return CorrelationMatrix.compute(data);
+    }
+}
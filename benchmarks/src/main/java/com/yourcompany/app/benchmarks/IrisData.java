@@ -0,0 +1,81 @@
+package com.yourcompany.app.benchmarks;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Synthetic Iris-like data: an id, four measurements drawn around the real
+ * per-species means, and the species as the class. The same seed always
+ * gives the same rows, so results are comparable between runs.
+ */
+final class IrisData {
+    static final String HEADER = "Id,SepalLengthCm,SepalWidthCm,PetalLengthCm,PetalWidthCm,Species";
+    private static final String[] SPECIES = { "Iris-setosa", "Iris-versicolor", "Iris-virginica" };
+    private static final double[][] MEANS = { { 5.0, 3.4, 1.5, 0.2 }, { 5.9, 2.8, 4.3, 1.3 }, { 6.6, 3.0, 5.6, 2.0 } };
+    private static final long SEED = 42;
+
+    private IrisData() {
+    }
+
+    /** Builds {@code rows} instances in memory with the class index set. */
+    static Instances instances(int rows) {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        for (String name : HEADER.split(",")) {
+            attributes.add(name.equals("Species") ? new Attribute(name, Arrays.asList(SPECIES)) : new Attribute(name));
+        }
+        Instances data = new Instances("iris", attributes, rows);
+        data.setClassIndex(data.numAttributes() - 1);
+        Random random = new Random(SEED);
+        double[] values = new double[6];
+        for (int i = 1; i <= rows; i++) {
+            int species = fill(random, values, i);
+            values[5] = species;
+            data.add(new DenseInstance(1, values.clone()));
+        }
+        return data;
+    }
+
+    /** Writes {@code rows} rows to a temporary CSV file that is deleted on exit. */
+    static File csv(long rows) throws IOException {
+        File file = File.createTempFile("iris-" + rows + "-", ".csv");
+        file.deleteOnExit();
+        Random random = new Random(SEED);
+        double[] values = new double[6];
+        StringBuilder line = new StringBuilder();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (long i = 1; i <= rows; i++) {
+                int species = fill(random, values, i);
+                line.setLength(0);
+                line.append(i);
+                for (int c = 1; c <= 4; c++) {
+                    line.append(',').append(values[c]);
+                }
+                line.append(',').append(SPECIES[species]).append('\n');
+                writer.write(line.toString());
+            }
+        }
+        return file;
+    }
+
+    private static int fill(Random random, double[] values, long id) {
+        int species = random.nextInt(SPECIES.length);
+        values[0] = id;
+        for (int c = 0; c < 4; c++) {
+            double value = Math.max(0.1, MEANS[species][c] + random.nextGaussian() * 0.35);
+            values[c + 1] = Math.round(value * 10) / 10.0;
+        }
+        return species;
+    }
+}
@@ -0,0 +1,79 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.MappedCsvReader;
+import com.yourcompany.app.SnapshotStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import weka.core.Instances;
+import weka.core.converters.CSVLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to read a whole CSV file into Instances, parsing it or reopening its
+ * snapshot. The 50M-row case writes a file of about 2 GB and needs a heap
+ * of tens of gigabytes for CSVLoader; skip it with {@code -p rows=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class LoadBenchmark {
+    @Param({ "1000", "100000", "1000000", "10000000", "50000000" })
+    public int rows;
+
+    private File file;
+    private File snapshotDirectory;
+    private SnapshotStore snapshots;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = IrisData.csv(rows);
+        snapshotDirectory = Files.createTempDirectory("snapshots").toFile();
+        snapshots = new SnapshotStore(snapshotDirectory, SnapshotStore.DEFAULT_MAX_BYTES);
+        snapshots.load(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+        file.delete();
+        File[] snapshotFiles = snapshotDirectory.listFiles();
+        if (snapshotFiles != null) {
+            for (File snapshotFile : snapshotFiles) {
+                snapshotFile.delete();
+            }
+        }
+        snapshotDirectory.delete();
+    }
+
+    @Benchmark
+    public Instances csvLoader() throws IOException {
+        CSVLoader loader = new CSVLoader();
+        loader.setSource(file);
+        return loader.getDataSet();
+    }
+
+    @Benchmark
+    public Instances mappedCsvReader() throws IOException {
+        return MappedCsvReader.read(file);
+    }
+
+    @Benchmark
+    public Instances snapshot() throws IOException {
+        return snapshots.load(file).asInstances();
+    }
+}
@@ -0,0 +1,74 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.CompiledJ48;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring one instance at a time, cycling through the dataset so larger row
+ * counts show the cost of rows that are no longer in cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PredictBenchmark {
+    /** The model is trained on at most this many rows; only scoring is measured. */
+    private static final int TRAINING_ROWS = 10_000;
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    public int rows;
+
+    private Instances data;
+    private double[][] rowValues;
+    private J48 j48;
+    private CompiledJ48 compiled;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void train() throws Exception {
+        data = IrisData.instances(rows);
+        j48 = new J48();
+        j48.buildClassifier(new Instances(data, 0, Math.min(rows, TRAINING_ROWS)));
+        compiled = CompiledJ48.compile(j48);
+        rowValues = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            rowValues[i] = data.instance(i).toDoubleArray();
+        }
+    }
+
+    private int nextRow() {
+        int row = next;
+        next = row + 1 == rows ? 0 : row + 1;
+        return row;
+    }
+
+    @Benchmark
+    public double j48ClassifyInstance() throws Exception {
+        return j48.classifyInstance(data.instance(nextRow()));
+    }
+
+    @Benchmark
+    public double compiledClassifyInstance() {
+        return compiled.classifyInstance(data.instance(nextRow()));
+    }
+
+    @Benchmark
+    public int compiledClassifyRow() {
+        return compiled.classify(rowValues[nextRow()]);
+    }
+}
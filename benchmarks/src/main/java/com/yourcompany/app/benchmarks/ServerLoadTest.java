@@ -0,0 +1,128 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.AnalysisServer;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test for {@link AnalysisServer} on localhost: starts a server over a
+ * synthetic Iris-like dataset, then keeps {@code clients} connections busy
+ * with a mix of stats, compare and predict requests for a fixed time and
+ * prints throughput, latency percentiles and how many requests were turned
+ * away with 503.
+ * <p>
+ * Arguments: {@code [rows] [clients] [seconds] [maxConcurrent] [maxQueued]},
+ * defaulting to 100000 rows, 64 clients, 20 s, one request per core and
+ * {@link AnalysisServer#DEFAULT_MAX_QUEUED}.
+ */
+public class ServerLoadTest {
+    private static final String[][] REQUESTS = {
+            { "/stats", "{}" },
+            { "/compare-columns", "{\"columns\": [\"SepalLengthCm\", \"PetalLengthCm\"]}" },
+            { "/predict", "{\"rows\": [{\"SepalLengthCm\": 5.1, \"SepalWidthCm\": 3.5, \"PetalLengthCm\": 1.4,"
+                    + " \"PetalWidthCm\": 0.2}, {\"SepalLengthCm\": 6.7, \"SepalWidthCm\": 3.0,"
+                    + " \"PetalLengthCm\": 5.2, \"PetalWidthCm\": 2.3}]}" }
+    };
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int maxConcurrent = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int maxQueued = args.length > 4 ? Integer.parseInt(args[4]) : AnalysisServer.DEFAULT_MAX_QUEUED;
+
+        Instances data = IrisData.instances(rows);
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+        AnalysisServer server = new AnalysisServer(Collections.singletonMap("iris", data), j48, maxConcurrent,
+                maxQueued);
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        String base = "http://127.0.0.1:" + server.port();
+        System.out.printf("%,d rows, %d clients, %d s, %d concurrent, %d queued%n", rows, clients, seconds,
+                maxConcurrent, maxQueued);
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int first = c;
+            futures.add(pool.submit(() -> {
+                Result result = new Result();
+                for (int i = first; System.nanoTime() < deadline; i++) {
+                    String[] request = REQUESTS[i % REQUESTS.length];
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + request[0]))
+                            .POST(HttpRequest.BodyPublishers.ofString(request[1])).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    result.record(response.statusCode(), System.nanoTime() - start);
+                }
+                return result;
+            }));
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        pool.shutdown();
+        server.stop();
+        total.print(seconds);
+    }
+
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long rejected;
+        private long failed;
+
+        void record(int status, long nanos) {
+            if (status == 503) {
+                rejected++;
+            } else if (status != 200) {
+                failed++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                record(200, other.latencies[i]);
+            }
+            rejected += other.rejected;
+            failed += other.failed;
+        }
+
+        void print(int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("%,d requests, %,.0f req/s, %,d rejected (503), %,d failed%n", count,
+                    count / (double) seconds, rejected, failed);
+            System.out.printf("latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n", percentile(sorted, 0.50),
+                    percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double q) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (q * sorted.length))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.yourcompany.app.benchmarks;
+
+import com.yourcompany.app.ColumnStatsEngine;
+import com.yourcompany.app.ColumnarDataset;
+import com.yourcompany.app.LazyTableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import weka.core.Instances;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column statistics: computing them over every row, over the same data held
+ * in columns, and what the "statistics for all columns" command costs on a
+ * dataset whose statistics are not cached yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StatsBenchmark {
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    public int rows;
+
+    private Instances data;
+    private Instances columnar;
+
+    @Setup(Level.Trial)
+    public void createData() {
+        data = IrisData.instances(rows);
+        columnar = ColumnarDataset.of(data).asInstances();
+    }
+
+    /** Keeps every displayAllColumnStats call from being a cache hit. */
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        ColumnStatsEngine.invalidate(data);
+    }
+
+    @Benchmark
+    public ColumnStatsEngine.ColumnStats[] computeStats() {
+        return ColumnStatsEngine.compute(data);
+    }
+
+    @Benchmark
+    public ColumnStatsEngine.ColumnStats[] computeStatsColumnar() {
+        return ColumnStatsEngine.compute(columnar);
+    }
+
+    @Benchmark
+    public void displayAllColumnStats(Blackhole blackhole) {
+        // What the chat table renders for the visible rows.
+        LazyTableModel table = LazyTableModel.forColumnStats(data, ColumnStatsEngine.getStats(data, true));
+        for (int row = 0; row < table.getRowCount(); row++) {
+            for (int column = 0; column < table.getColumnCount(); column++) {
+                blackhole.consume(table.getValueAt(row, column));
+            }
+        }
+    }
+}
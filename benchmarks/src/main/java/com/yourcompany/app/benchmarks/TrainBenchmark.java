@@ -0,0 +1,42 @@
+package com.yourcompany.app.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+import java.util.concurrent.TimeUnit;
+
+/** Training J48 with default options, as the app does after loading a dataset. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TrainBenchmark {
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    public int rows;
+
+    private Instances data;
+
+    @Setup(Level.Trial)
+    public void createData() {
+        data = IrisData.instances(rows);
+    }
+
+    @Benchmark
+    public J48 trainJ48() throws Exception {
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+        return j48;
+    }
+}
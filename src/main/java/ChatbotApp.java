@@ -1,5 +1,7 @@
 import weka.classifiers.Evaluation;
 import weka.classifiers.trees.J48;
+import com.yourcompany.app.ColumnStatsEngine;
+import com.yourcompany.app.CommandMatcher;
 
 import weka.core.Instances;
 import weka.core.converters.CSVLoader;
@@ -29,6 +31,7 @@ public class ChatbotApp extends JFrame {
             "predict",
             "compare datasets"
     };
+    private static final CommandMatcher COMMAND_MATCHER = new CommandMatcher(COMMANDS, 3);
 
     public ChatbotApp() {
 
@@ -104,37 +107,7 @@ public class ChatbotApp extends JFrame {
     }
 
     private String getClosestCommand(String userInput) {
-        int minDistance = Integer.MAX_VALUE;
-        String closestCommand = null;
-
-        for (String command : COMMANDS) {
-            int distance = levenshteinDistance(userInput, command);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closestCommand = command;
-            }
-        }
-
-        return minDistance <= 3 ? closestCommand : null;
-    }
-
-    private int levenshteinDistance(String a, String b) {
-        int[][] dp = new int[a.length() + 1][b.length() + 1];
-
-        for (int i = 0; i <= a.length(); i++) {
-            for (int j = 0; j <= b.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
-                            Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1));
-                }
-            }
-        }
-
-        return dp[a.length()][b.length()];
+        return COMMAND_MATCHER.closest(userInput);
     }
 
     private void loadDataset() {
@@ -222,7 +195,7 @@ public class ChatbotApp extends JFrame {
                 chatArea.append("Standard Deviation: " + stats[3] + "\n");
             } else {
                 chatArea.append("Type: Nominal\n");
-                chatArea.append("Distinct Values: " + data.attributeStats(i).nominalCounts.length + "\n");
+                chatArea.append("Distinct Values: " + ColumnStatsEngine.getStats(data, i).nominalCounts.length + "\n");
             }
         }
     }
@@ -260,11 +233,7 @@ public class ChatbotApp extends JFrame {
 
     private double[] calculateColumnStats(Instances data, int columnIndex) {
         if (data.attribute(columnIndex).isNumeric()) {
-            double min = data.attributeStats(columnIndex).numericStats.min;
-            double max = data.attributeStats(columnIndex).numericStats.max;
-            double mean = data.attributeStats(columnIndex).numericStats.mean;
-            double stdDev = data.attributeStats(columnIndex).numericStats.stdDev;
-            return new double[] { min, max, mean, stdDev };
+            return ColumnStatsEngine.getStats(data, columnIndex).toArray();
         } else {
             return null;
         }
@@ -360,16 +329,16 @@ public class ChatbotApp extends JFrame {
                 newData.setClassIndex(newData.numAttributes() - 1);
             }
 
+            // Each distribution is computed once and feeds both the output and the evaluation.
+            Evaluation eval = new Evaluation(data);
             chatArea.append("Predictions for the new unlabelled dataset:\n");
             for (int i = 0; i < newData.numInstances(); i++) {
-                double predictedClass = j48Classifier.classifyInstance(newData.instance(i));
+                double[] distribution = j48Classifier.distributionForInstance(newData.instance(i));
+                double predictedClass = eval.evaluateModelOnceAndRecordPrediction(distribution, newData.instance(i));
                 chatArea.append("Instance " + (i + 1) + ": Predicted class - "
                         + data.classAttribute().value((int) predictedClass) + "\n");
             }
 
-            Evaluation eval = new Evaluation(data);
-            eval.evaluateModel(j48Classifier, newData);
-
             int response = JOptionPane.showConfirmDialog(this, "Do you want to see evaluation metrics?",
                     "Evaluation Metrics", JOptionPane.YES_NO_OPTION);
             if (response == JOptionPane.YES_OPTION) {
@@ -0,0 +1,286 @@
+package com.yourcompany.app;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+import javax.swing.table.TableModel;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The analysis commands without any user interface: each takes loaded data
+ * and returns its result as a table, so the same code serves the chat window,
+ * the batch runner and any other front end.
+ */
+public final class Analysis {
+    private Analysis() {
+    }
+
+    /** Loads a CSV file with the last column as the class. */
+    public static Instances load(File file) throws IOException {
+        Instances data = MappedCsvReader.read(file);
+        if (data.classIndex() == -1) {
+            data.setClassIndex(data.numAttributes() - 1);
+        }
+        return data;
+    }
+
+    /**
+     * Resolves a column given by index or by name.
+     *
+     * @throws IllegalArgumentException if there is no such column
+     */
+    public static int column(Instances data, String column) {
+        if (data.attribute(column) != null) {
+            return data.attribute(column).index();
+        }
+        try {
+            int index = Integer.parseInt(column);
+            if (index >= 0 && index < data.numAttributes()) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // Not an index either.
+        }
+        throw new IllegalArgumentException("No column " + column + " in " + data.relationName());
+    }
+
+    public static int numericColumn(Instances data, String column) {
+        int index = column(data, column);
+        if (!data.attribute(index).isNumeric()) {
+            throw new IllegalArgumentException("Column " + data.attribute(index).name() + " is not numeric");
+        }
+        return index;
+    }
+
+    public static TableModel columnStats(Instances data) {
+        return LazyTableModel.forColumnStats(data, ColumnStatsEngine.getStats(data, true));
+    }
+
+    public static TableModel compareColumns(Instances data, int column1, int column2) {
+        ColumnStatsEngine.ColumnStats stats1 = ColumnStatsEngine.getStats(data, column1);
+        ColumnStatsEngine.ColumnStats stats2 = ColumnStatsEngine.getStats(data, column2);
+        String[][] rows = {
+                { "Minimum", String.valueOf(stats1.min), String.valueOf(stats2.min) },
+                { "Maximum", String.valueOf(stats1.max), String.valueOf(stats2.max) },
+                { "Mean", String.valueOf(stats1.mean), String.valueOf(stats2.mean) },
+                { "Std Dev", String.valueOf(stats1.stdDev), String.valueOf(stats2.stdDev) }
+        };
+        return LazyTableModel.of(rows, new String[] { "Statistic", data.attribute(column1).name(),
+                data.attribute(column2).name() });
+    }
+
+    /**
+     * Compares the given columns across datasets; {@code columns[i]} holds
+     * the dataset index and column index of the i-th column. A column name
+     * that appears more than once also gets a final row for all of its rows
+     * together, with the quantile and distinct-count sketches merged.
+     */
+    public static TableModel compareDatasets(List<Instances> datasets, List<String> names, int[][] columns) {
+        Map<String, List<ColumnStatsEngine.ColumnStats>> byName = new LinkedHashMap<>();
+        List<String[]> rows = new ArrayList<>();
+        for (int[] column : columns) {
+            Instances dataset = datasets.get(column[0]);
+            String name = dataset.attribute(column[1]).name();
+            ColumnStatsEngine.ColumnStats stats = ColumnStatsEngine.getStats(dataset, true)[column[1]];
+            byName.computeIfAbsent(name, n -> new ArrayList<>()).add(stats);
+            rows.add(comparisonRow(name, names.get(column[0]), stats));
+        }
+        for (Map.Entry<String, List<ColumnStatsEngine.ColumnStats>> entry : byName.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                rows.add(comparisonRow(entry.getKey(), "All", ColumnStatsEngine.combine(entry.getValue())));
+            }
+        }
+        return LazyTableModel.of(rows.toArray(new String[0][]), new String[] { "Column", "Dataset", "Minimum",
+                "Maximum", "Mean", "Std Dev", "Median", "90th Percentile", "Distinct Values" });
+    }
+
+    private static String[] comparisonRow(String column, String dataset, ColumnStatsEngine.ColumnStats stats) {
+        return new String[] { column, dataset, String.valueOf(stats.min), String.valueOf(stats.max),
+                String.valueOf(stats.mean), String.valueOf(stats.stdDev), String.valueOf(stats.quantile(0.5)),
+                String.valueOf(stats.quantile(0.9)), String.valueOf(stats.distinctCount()) };
+    }
+
+    /** Every numeric column whose name appears in all datasets, in the order of the first dataset. */
+    public static int[][] sharedNumericColumns(List<Instances> datasets) {
+        List<int[]> columns = new ArrayList<>();
+        Instances first = datasets.get(0);
+        for (int a = 0; a < first.numAttributes(); a++) {
+            String name = first.attribute(a).name();
+            List<int[]> matches = new ArrayList<>();
+            for (int d = 0; d < datasets.size(); d++) {
+                if (datasets.get(d).attribute(name) != null && datasets.get(d).attribute(name).isNumeric()) {
+                    matches.add(new int[] { d, datasets.get(d).attribute(name).index() });
+                }
+            }
+            if (matches.size() == datasets.size()) {
+                columns.addAll(matches);
+            }
+        }
+        return columns.toArray(new int[0][]);
+    }
+
+    /**
+     * Reuses the J48 model cached for this file content and option set,
+     * training and caching a new one only when there is none.
+     */
+    public static J48 loadOrTrainJ48(ModelStore store, File trainingFile, Instances data) throws Exception {
+        String[] options = j48Options(store, trainingFile);
+        String key = store.key(trainingFile, options);
+        Classifier cached = store.load(key);
+        if (cached instanceof J48) {
+            return (J48) cached;
+        }
+        J48 j48 = new J48();
+        j48.setOptions(options);
+        j48.buildClassifier(data);
+        store.save(key, trainingFile, j48);
+        return j48;
+    }
+
+    /** Options last saved for {@code trainingFile}, such as a tuned configuration, or the J48 defaults. */
+    public static String[] j48Options(ModelStore store, File trainingFile) {
+        String[] options = store.options(trainingFile);
+        return options != null ? options : new J48().getOptions();
+    }
+
+    public static final class Prediction {
+        public final BatchScorer.Summary summary;
+        public final Evaluation evaluation;
+
+        Prediction(BatchScorer.Summary summary, Evaluation evaluation) {
+            this.summary = summary;
+            this.evaluation = evaluation;
+        }
+    }
+
+    /**
+     * Scores {@code input} with {@code model} and writes the predictions to
+     * {@code output}, evaluating them against any labels in the input.
+     */
+    public static Prediction predict(Classifier model, Instances header, File input, File output) throws Exception {
+        Evaluation evaluation = new Evaluation(header);
+        BatchScorer.Summary summary;
+        try (StreamingCsvReader reader = new StreamingCsvReader(input, header)) {
+            summary = new BatchScorer(model, header).score(reader, output, (batch, distributions, rowsScored) -> {
+                for (int i = 0; i < distributions.length; i++) {
+                    evaluation.evaluateModelOnceAndRecordPrediction(distributions[i], batch.instance(i));
+                }
+            });
+        }
+        return new Prediction(summary, evaluation);
+    }
+
+    /** Headline metrics of an evaluation, one per row. */
+    public static TableModel evaluationSummary(Evaluation evaluation) {
+        String[][] rows = {
+                { "Instances with class", String.valueOf((long) evaluation.numInstances()) },
+                { "Accuracy (%)", String.valueOf(evaluation.pctCorrect()) },
+                { "Kappa", String.valueOf(evaluation.kappa()) },
+                { "Mean absolute error", String.valueOf(evaluation.meanAbsoluteError()) },
+                { "Root mean squared error", String.valueOf(evaluation.rootMeanSquaredError()) }
+        };
+        return LazyTableModel.of(rows, new String[] { "Metric", "Value" });
+    }
+
+    /** Confusion matrix with actual classes as rows and predicted classes as columns. */
+    public static TableModel confusionMatrix(Instances header, Evaluation evaluation) {
+        int numClasses = header.classAttribute().numValues();
+        double[][] matrix = evaluation.confusionMatrix();
+        String[] columnNames = new String[numClasses + 1];
+        columnNames[0] = "Actual \\ Predicted";
+        String[][] rows = new String[numClasses][numClasses + 1];
+        for (int actual = 0; actual < numClasses; actual++) {
+            columnNames[actual + 1] = header.classAttribute().value(actual);
+            rows[actual][0] = header.classAttribute().value(actual);
+            for (int predicted = 0; predicted < numClasses; predicted++) {
+                rows[actual][predicted + 1] = String.valueOf((long) matrix[actual][predicted]);
+            }
+        }
+        return LazyTableModel.of(rows, columnNames);
+    }
+
+    /** Number of instances predicted as each class. */
+    public static TableModel predictionCounts(Instances header, BatchScorer.Summary summary) {
+        int numClasses = header.classAttribute().numValues();
+        String[][] rows = new String[numClasses + 1][];
+        for (int k = 0; k < numClasses; k++) {
+            rows[k] = new String[] { header.classAttribute().value(k), String.valueOf(summary.classCounts[k]) };
+        }
+        rows[numClasses] = new String[] { "Unclassified", String.valueOf(summary.unclassified) };
+        return LazyTableModel.of(rows, new String[] { "Predicted Class", "Instances" });
+    }
+
+    public static final class Tuning {
+        public final List<J48Tuner.Result> results;
+        public final J48 best;
+
+        Tuning(List<J48Tuner.Result> results, J48 best) {
+            this.results = results;
+            this.best = best;
+        }
+    }
+
+    /**
+     * Searches J48 options on {@code data}, trains the best configuration on
+     * all of it and caches that model for {@code trainingFile}, so later
+     * loads of the file reuse the tuned options.
+     */
+    public static Tuning tuneJ48(ModelStore store, File trainingFile, Instances data, List<String[]> candidates,
+            int numFolds) throws Exception {
+        List<J48Tuner.Result> results = J48Tuner.search(data, candidates, numFolds, 1);
+        J48 best = J48Tuner.train(results.get(0), data);
+        store.save(store.key(trainingFile, best.getOptions()), trainingFile, best);
+        return new Tuning(results, best);
+    }
+
+    /** Tuning results best first, with the accuracy of each configuration. */
+    public static TableModel tuningResults(List<J48Tuner.Result> results) {
+        String[][] rows = new String[results.size()][];
+        for (int i = 0; i < results.size(); i++) {
+            J48Tuner.Result result = results.get(i);
+            String status = result.cut ? "cut after " + result.folds + " folds" : i == 0 ? "best" : "";
+            rows[i] = new String[] { String.valueOf(i + 1), result.describe(),
+                    String.format(Locale.ROOT, "%.2f", result.accuracy()), String.valueOf(result.folds), status };
+        }
+        return LazyTableModel.of(rows, new String[] { "Rank", "Options", "Accuracy (%)", "Folds", "Status" });
+    }
+
+    /** One row per pair of numeric columns, formatted only when the row is shown. */
+    public static TableModel correlationTable(CorrelationMatrix.Result result) {
+        int p = result.names.length;
+        int[][] pairs = new int[p * (p - 1) / 2][];
+        int next = 0;
+        for (int i = 0; i < p; i++) {
+            for (int j = i + 1; j < p; j++) {
+                pairs[next++] = new int[] { i, j };
+            }
+        }
+        String[] columnNames = { "Column", "Column", "Pearson", "Spearman", "Covariance", "Rows" };
+        return new LazyTableModel(columnNames, pairs.length, (row, column) -> {
+            int i = pairs[row][0];
+            int j = pairs[row][1];
+            switch (column) {
+                case 0:
+                    return result.names[i];
+                case 1:
+                    return result.names[j];
+                case 2:
+                    return String.format(Locale.ROOT, "%.4f", result.pearson[i][j]);
+                case 3:
+                    return String.format(Locale.ROOT, "%.4f", result.spearman[i][j]);
+                case 4:
+                    return String.valueOf(result.covariance[i][j]);
+                default:
+                    return String.valueOf(result.counts[i][j]);
+            }
+        });
+    }
+}
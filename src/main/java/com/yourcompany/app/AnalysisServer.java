@@ -0,0 +1,410 @@
+package com.yourcompany.app;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import weka.classifiers.trees.J48;
+import weka.core.Attribute;
+import weka.core.Instances;
+
+import javax.swing.table.TableModel;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the analysis commands over HTTP on the JDK's built-in server, one
+ * virtual thread per request. At most {@code maxConcurrent} requests run at
+ * once; up to {@code maxQueued} more wait for a slot, and beyond that the
+ * server answers 503 straight away.
+ * <p>
+ * The datasets and the model are loaded before the server starts and are
+ * only read afterwards: column statistics are computed up front and the J48
+ * tree is compiled into a {@link CompiledJ48}, which keeps no state between
+ * predictions, so requests share them without locking. A refreshed model
+ * replaces the old one with {@link #updateModel}; requests already running
+ * finish on the model they started with.
+ * <p>
+ * Every endpoint except {@code GET /health} takes a JSON object by POST and
+ * answers with a table, {@code {"title": ..., "columns": [...], "rows": [[...]]}},
+ * or with {@code {"error": ...}} and a 4xx/5xx status:
+ * <pre>
+ * POST /stats             {"dataset": NAME}                          dataset defaults to the first one
+ * POST /compare-columns   {"dataset": NAME, "columns": [COL, COL]}   columns by name or index
+ * POST /predict           {"rows": [{"sepal": 5.1, "species": "..."}, ...]}
+ * POST /compare-datasets  {"datasets": [NAME, ...], "columns": [{"dataset": NAME, "column": COL}, ...]}
+ *                         both optional: all datasets, and every numeric column they share
+ * </pre>
+ */
+public class AnalysisServer {
+    public static final int DEFAULT_PORT = 8085;
+    public static final int DEFAULT_MAX_QUEUED = 256;
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+    private static final long QUEUE_TIMEOUT_SECONDS = 30;
+
+    private final Map<String, Instances> datasets;
+    private final Instances primary;
+    private volatile CompiledJ48 model;
+    private final Semaphore running;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param datasets datasets by name; the model was trained on the first,
+     *                 which is also the default for requests naming none
+     */
+    public AnalysisServer(Map<String, Instances> datasets, J48 model, int maxConcurrent, int maxQueued)
+            throws Exception {
+        if (datasets.isEmpty()) {
+            throw new IllegalArgumentException("At least one dataset is required");
+        }
+        this.datasets = Collections.unmodifiableMap(new LinkedHashMap<>(datasets));
+        this.primary = datasets.values().iterator().next();
+        this.model = CompiledJ48.compile(model);
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+        this.maxInFlight = Math.max(1, maxConcurrent) + Math.max(0, maxQueued);
+        for (Instances dataset : this.datasets.values()) {
+            ColumnStatsEngine.getStats(dataset);
+        }
+    }
+
+    /** Serves predictions from {@code j48} from now on. */
+    public void updateModel(J48 j48) throws Exception {
+        model = CompiledJ48.compile(j48);
+    }
+
+    public synchronized void start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    public synchronized int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                sendError(exchange, 503, "Too many requests queued; try again later");
+                return;
+            }
+            if (!running.tryAcquire(QUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                sendError(exchange, 503, "Timed out waiting for a free request slot");
+                return;
+            }
+            try {
+                dispatch(exchange);
+            } finally {
+                running.release();
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Server is shutting down");
+        } catch (Exception e) {
+            e.printStackTrace();
+            sendError(exchange, 500, e.toString());
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void dispatch(HttpExchange exchange) throws Exception {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/health")) {
+            send(exchange, 200, "{\"status\":\"ok\",\"datasets\":" + datasets.size() + ",\"rows\":"
+                    + primary.numInstances() + "}\n");
+            return;
+        }
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendError(exchange, 405, "Use POST with a JSON body");
+            return;
+        }
+        Map<String, Object> request = readRequest(exchange);
+        TableModel result;
+        String title;
+        switch (path) {
+            case "/stats": {
+                Instances data = dataset(request.get("dataset"));
+                result = Analysis.columnStats(data);
+                title = "Statistics for " + data.relationName();
+                break;
+            }
+            case "/compare-columns": {
+                Instances data = dataset(request.get("dataset"));
+                List<?> columns = list(request, "columns");
+                if (columns.size() != 2) {
+                    throw new IllegalArgumentException("\"columns\" must name exactly two columns");
+                }
+                result = Analysis.compareColumns(data, Analysis.numericColumn(data, columnName(columns.get(0))),
+                        Analysis.numericColumn(data, columnName(columns.get(1))));
+                title = "Column comparison";
+                break;
+            }
+            case "/predict":
+                result = predict(list(request, "rows"));
+                title = "Predictions";
+                break;
+            case "/compare-datasets":
+                result = compareDatasets(request);
+                title = "Dataset comparison";
+                break;
+            default:
+                sendError(exchange, 404, "Unknown endpoint " + path);
+                return;
+        }
+        StringWriter json = new StringWriter();
+        TableWriter.write(title, result, TableWriter.Format.JSON, json);
+        send(exchange, 200, json.toString());
+    }
+
+    private TableModel predict(List<?> rows) {
+        CompiledJ48 model = this.model;
+        Attribute classAttribute = primary.classAttribute();
+        String[] columnNames = new String[classAttribute.numValues() + 2];
+        columnNames[0] = "Row";
+        columnNames[1] = "Predicted Class";
+        for (int k = 0; k < classAttribute.numValues(); k++) {
+            columnNames[k + 2] = "P(" + classAttribute.value(k) + ")";
+        }
+        String[][] cells = new String[rows.size()][];
+        for (int r = 0; r < rows.size(); r++) {
+            if (!(rows.get(r) instanceof Map)) {
+                throw new IllegalArgumentException("Row " + r + " must be an object of column values");
+            }
+            double[] distribution = model.distribution(toRow((Map<?, ?>) rows.get(r), r));
+            int predicted = -1;
+            double best = -1;
+            cells[r] = new String[columnNames.length];
+            cells[r][0] = String.valueOf(r);
+            for (int k = 0; k < distribution.length; k++) {
+                cells[r][k + 2] = String.valueOf(distribution[k]);
+                if (distribution[k] > best) {
+                    best = distribution[k];
+                    predicted = k;
+                }
+            }
+            cells[r][1] = classAttribute.value(predicted);
+        }
+        return LazyTableModel.of(cells, columnNames);
+    }
+
+    /** Converts a JSON row to Weka's internal values; absent columns and the class are missing. */
+    private double[] toRow(Map<?, ?> values, int rowIndex) {
+        double[] row = new double[primary.numAttributes()];
+        for (int a = 0; a < row.length; a++) {
+            Attribute attribute = primary.attribute(a);
+            Object value = a == primary.classIndex() ? null : values.get(attribute.name());
+            if (value == null) {
+                row[a] = Double.NaN;
+            } else if (attribute.isNumeric() && value instanceof Double) {
+                row[a] = (Double) value;
+            } else if (attribute.isNominal() && attribute.indexOfValue(value.toString()) >= 0) {
+                row[a] = attribute.indexOfValue(value.toString());
+            } else {
+                throw new IllegalArgumentException("Row " + rowIndex + ": bad value " + value + " for column "
+                        + attribute.name());
+            }
+        }
+        return row;
+    }
+
+    private TableModel compareDatasets(Map<String, Object> request) {
+        List<String> names = new ArrayList<>();
+        if (request.containsKey("datasets")) {
+            for (Object name : list(request, "datasets")) {
+                dataset(name);
+                names.add(name.toString());
+            }
+        } else {
+            names.addAll(datasets.keySet());
+        }
+        List<Instances> selected = new ArrayList<>();
+        for (String name : names) {
+            selected.add(datasets.get(name));
+        }
+        int[][] columns;
+        if (request.containsKey("columns")) {
+            List<?> specs = list(request, "columns");
+            columns = new int[specs.size()][];
+            for (int i = 0; i < specs.size(); i++) {
+                if (!(specs.get(i) instanceof Map)) {
+                    throw new IllegalArgumentException("Each column must be {\"dataset\": NAME, \"column\": COL}");
+                }
+                Map<?, ?> spec = (Map<?, ?>) specs.get(i);
+                int dataset = names.indexOf(String.valueOf(spec.get("dataset")));
+                if (dataset < 0) {
+                    throw new IllegalArgumentException("Dataset " + spec.get("dataset") + " is not being compared");
+                }
+                columns[i] = new int[] { dataset,
+                        Analysis.numericColumn(selected.get(dataset), columnName(spec.get("column"))) };
+            }
+        } else {
+            columns = Analysis.sharedNumericColumns(selected);
+        }
+        return Analysis.compareDatasets(selected, names, columns);
+    }
+
+    private Instances dataset(Object name) {
+        if (name == null) {
+            return primary;
+        }
+        Instances data = datasets.get(name.toString());
+        if (data == null) {
+            throw new IllegalArgumentException("Unknown dataset " + name + "; available: " + datasets.keySet());
+        }
+        return data;
+    }
+
+    /** JSON numbers arrive as doubles; a whole number names a column by index. */
+    private static String columnName(Object column) {
+        if (column instanceof Double && (Double) column == Math.rint((Double) column)) {
+            return String.valueOf(((Double) column).intValue());
+        }
+        return String.valueOf(column);
+    }
+
+    private static List<?> list(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("\"" + field + "\" must be an array");
+        }
+        return (List<?>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readRequest(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                body.write(buffer, 0, n);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body is larger than " + MAX_BODY_BYTES + " bytes");
+                }
+            }
+        }
+        String text = body.toString(StandardCharsets.UTF_8.name());
+        if (text.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Object request = Json.parse(text);
+        if (!(request instanceof Map)) {
+            throw new IllegalArgumentException("The request body must be a JSON object");
+        }
+        return (Map<String, Object>) request;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        TableWriter.appendString(json, message);
+        send(exchange, status, json.append("}\n").toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (status == 503) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int port = DEFAULT_PORT;
+        String bind = "127.0.0.1";
+        int maxConcurrent = Runtime.getRuntime().availableProcessors();
+        int maxQueued = DEFAULT_MAX_QUEUED;
+        int refreshSeconds = 0;
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--bind":
+                    bind = args[i + 1];
+                    break;
+                case "--max-concurrent":
+                    maxConcurrent = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--max-queued":
+                    maxQueued = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--data":
+                    files.add(new File(args[i + 1]));
+                    break;
+                case "--refresh-seconds":
+                    refreshSeconds = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (files.isEmpty() || args.length % 2 != 0) {
+            System.err.println("Usage: AnalysisServer --data CSV [--data CSV...] [--port N] [--bind HOST]"
+                    + " [--max-concurrent N] [--max-queued N] [--refresh-seconds N]");
+            System.exit(2);
+        }
+        Map<String, Instances> datasets = new LinkedHashMap<>();
+        for (File file : files) {
+            datasets.put(file.getName(), Analysis.load(file));
+        }
+        Instances training = datasets.get(files.get(0).getName());
+        J48 j48 = Analysis.loadOrTrainJ48(ModelStore.defaultStore(), files.get(0), training);
+        AnalysisServer analysisServer = new AnalysisServer(datasets, j48, maxConcurrent, maxQueued);
+        analysisServer.start(new InetSocketAddress(InetAddress.getByName(bind), port));
+        System.out.println("Serving " + datasets.keySet() + " on http://" + bind + ":" + analysisServer.port());
+        if (refreshSeconds > 0) {
+            // Retrain on rows appended to the training file; the dataset statistics stay as loaded.
+            IncrementalTrainer trainer = new IncrementalTrainer(files.get(0), training, j48,
+                    training.numInstances(), IncrementalTrainer.DEFAULT_WINDOW_ROWS);
+            Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(() -> {
+                try {
+                    long added = trainer.refresh();
+                    if (added > 0) {
+                        analysisServer.updateModel((J48) trainer.model());
+                        System.out.println("Model refreshed with " + added + " new rows");
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+}
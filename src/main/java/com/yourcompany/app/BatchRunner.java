@@ -0,0 +1,379 @@
+package com.yourcompany.app;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.xy.DefaultIntervalXYDataset;
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+import javax.swing.table.TableModel;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the chatbot's analysis commands without a display, from the command
+ * line or a script file with one command per line, and prints each result
+ * as text, CSV or JSON. Charts are rendered straight to PNG files.
+ *
+ * <pre>
+ * java -cp ... com.yourcompany.app.BatchRunner --data iris.csv --format json stats
+ * java -cp ... com.yourcompany.app.BatchRunner --format csv --output report.csv --script nightly.txt
+ * </pre>
+ */
+public class BatchRunner {
+    static final String USAGE = String.join("\n",
+            "Usage: BatchRunner [--format text|csv|json] [--output FILE] [--data CSV] (--script FILE | COMMAND ARGS...)",
+            "Commands (columns are given by index or name):",
+            "  load CSV                                  use CSV as the current dataset",
+            "  stats                                     statistics for all columns",
+            "  compare COLUMN COLUMN                     compare two numeric columns",
+            "  predict INPUT OUTPUT                      score INPUT with J48, write predictions to OUTPUT (.csv or .arff)",
+            "  evaluate [FOLDS]                          cross-validate J48 (10 folds by default)",
+            "  tune [FOLDS] [--random N]                 search J48 options over a grid, or N random",
+            "                                            candidates, and keep the best model",
+            "  compare-datasets CSV CSV... [--columns D:C,...]",
+            "                                            compare columns across datasets (D is 1-based); by",
+            "                                            default every numeric column the datasets share",
+            "  correlation [PNG]                         Pearson, Spearman and covariance of every pair of numeric",
+            "                                            columns, with a Pearson heatmap rendered to PNG",
+            "  visualize histogram COLUMN PNG [BINS]     render a histogram",
+            "  visualize scatter COLUMN COLUMN PNG       render a scatter plot",
+            "Script files hold one command per line; blank lines and lines starting with # are skipped.");
+    private static final int CHART_WIDTH = 800;
+    private static final int CHART_HEIGHT = 600;
+
+    private final Writer out;
+    private final TableWriter.Format format;
+    private final ModelStore modelStore;
+    private File dataFile;
+    private Instances data;
+    private J48 j48;
+
+    public BatchRunner(Writer out, TableWriter.Format format, ModelStore modelStore) {
+        this.out = out;
+        this.format = format;
+        this.modelStore = modelStore;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        TableWriter.Format format = TableWriter.Format.TEXT;
+        File output = null;
+        File script = null;
+        String dataPath = null;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--format":
+                        format = TableWriter.Format.valueOf(value.toUpperCase());
+                        break;
+                    case "--output":
+                        output = new File(value);
+                        break;
+                    case "--script":
+                        script = new File(value);
+                        break;
+                    case "--data":
+                        dataPath = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if ((script == null) == (i == args.length)) {
+                throw new IllegalArgumentException("Give either --script or a command");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try (Writer out = output != null
+                ? Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            BatchRunner runner = new BatchRunner(out, format, ModelStore.defaultStore());
+            if (dataPath != null) {
+                runner.run(Arrays.asList("load", dataPath));
+            }
+            if (script != null) {
+                runner.runScript(script);
+            } else {
+                runner.run(Arrays.asList(args).subList(i, args.length));
+            }
+        } catch (Exception e) {
+            System.err.println("Error: " + (e.getMessage() != null ? e.getMessage() : e));
+            System.exit(1);
+        }
+    }
+
+    /** Runs every command in {@code script}, stopping at the first that fails. */
+    public void runScript(File script) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(script.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    run(tokenize(line));
+                } catch (Exception e) {
+                    throw new Exception(script.getName() + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    public void run(List<String> command) throws Exception {
+        if (command.isEmpty()) {
+            return;
+        }
+        List<String> args = command.subList(1, command.size());
+        switch (command.get(0)) {
+            case "load":
+                expectArgs(args, 1, "load CSV");
+                dataFile = new File(args.get(0));
+                data = Analysis.load(dataFile);
+                j48 = null;
+                break;
+            case "stats":
+                write("Statistics for " + requireData().relationName(), Analysis.columnStats(data));
+                break;
+            case "compare":
+                expectArgs(args, 2, "compare COLUMN COLUMN");
+                requireData();
+                write("Column comparison", Analysis.compareColumns(data, Analysis.numericColumn(data, args.get(0)),
+                        Analysis.numericColumn(data, args.get(1))));
+                break;
+            case "predict":
+                expectArgs(args, 2, "predict INPUT OUTPUT");
+                predict(new File(args.get(0)), new File(args.get(1)));
+                break;
+            case "compare-datasets":
+                compareDatasets(args);
+                break;
+            case "evaluate":
+                if (args.size() > 1) {
+                    throw new IllegalArgumentException("Usage: evaluate [FOLDS]");
+                }
+                evaluate(args.isEmpty() ? CrossValidator.DEFAULT_FOLDS : parseIndex(args.get(0)));
+                break;
+            case "tune":
+                tune(args);
+                break;
+            case "correlation":
+                if (args.size() > 1) {
+                    throw new IllegalArgumentException("Usage: correlation [PNG]");
+                }
+                correlation(args.isEmpty() ? null : new File(args.get(0)));
+                break;
+            case "visualize":
+                visualize(args);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " + command.get(0));
+        }
+        out.flush();
+    }
+
+    private void predict(File input, File output) throws Exception {
+        requireData();
+        if (j48 == null) {
+            j48 = Analysis.loadOrTrainJ48(modelStore, dataFile, data);
+        }
+        Analysis.Prediction prediction = Analysis.predict(j48, data, input, output);
+        write("Predictions for " + input.getName() + " written to " + output.getPath(),
+                Analysis.predictionCounts(data, prediction.summary));
+        if (prediction.evaluation.numInstances() > 0) {
+            write("Evaluation", Analysis.evaluationSummary(prediction.evaluation));
+        }
+    }
+
+    private void evaluate(int numFolds) throws Exception {
+        requireData();
+        Evaluation evaluation = CrossValidator.crossValidate(new J48(), data, numFolds, 1);
+        write(numFolds + "-fold cross-validation", Analysis.evaluationSummary(evaluation));
+        write("Confusion matrix", Analysis.confusionMatrix(data, evaluation));
+    }
+
+    private void tune(List<String> args) throws Exception {
+        requireData();
+        List<String> rest = new ArrayList<>(args);
+        List<String[]> candidates = J48Tuner.grid();
+        int randomOption = rest.indexOf("--random");
+        if (randomOption >= 0) {
+            if (randomOption + 1 == rest.size()) {
+                throw new IllegalArgumentException("Missing value for --random");
+            }
+            candidates = J48Tuner.random(parseIndex(rest.remove(randomOption + 1)), 1);
+            rest.remove(randomOption);
+        }
+        if (rest.size() > 1) {
+            throw new IllegalArgumentException("Usage: tune [FOLDS] [--random N]");
+        }
+        int numFolds = rest.isEmpty() ? CrossValidator.DEFAULT_FOLDS : parseIndex(rest.get(0));
+        Analysis.Tuning tuning = Analysis.tuneJ48(modelStore, dataFile, data, candidates, numFolds);
+        j48 = tuning.best;
+        write("J48 tuning (" + numFolds + "-fold cross-validation)", Analysis.tuningResults(tuning.results));
+    }
+
+    private void correlation(File png) throws Exception {
+        requireData();
+        CorrelationMatrix.Result result = CorrelationMatrix.compute(data);
+        if (png != null) {
+            ChartUtils.saveChartAsPNG(png,
+                    CorrelationHeatmap.createChart("Pearson correlation", result.names, result.pearson),
+                    CHART_WIDTH, CHART_HEIGHT);
+        }
+        write("Correlations", Analysis.correlationTable(result));
+    }
+
+    private void compareDatasets(List<String> args) throws Exception {
+        List<String> paths = new ArrayList<>(args);
+        String columnSpec = null;
+        int columnsOption = paths.indexOf("--columns");
+        if (columnsOption >= 0) {
+            if (columnsOption + 1 == paths.size()) {
+                throw new IllegalArgumentException("Missing value for --columns");
+            }
+            columnSpec = paths.remove(columnsOption + 1);
+            paths.remove(columnsOption);
+        }
+        if (paths.size() < 2) {
+            throw new IllegalArgumentException("Usage: compare-datasets CSV CSV... [--columns D:C,...]");
+        }
+        List<Instances> datasets = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String path : paths) {
+            File file = new File(path);
+            datasets.add(Analysis.load(file));
+            names.add(file.getName());
+        }
+        int[][] columns;
+        if (columnSpec == null) {
+            columns = Analysis.sharedNumericColumns(datasets);
+        } else {
+            String[] specs = columnSpec.split(",");
+            columns = new int[specs.length][];
+            for (int i = 0; i < specs.length; i++) {
+                String[] parts = specs[i].split(":", 2);
+                int dataset = parts.length == 2 ? parseIndex(parts[0]) - 1 : -1;
+                if (dataset < 0 || dataset >= datasets.size()) {
+                    throw new IllegalArgumentException("Expected DATASET:COLUMN with DATASET from 1 to "
+                            + datasets.size() + ", got " + specs[i]);
+                }
+                columns[i] = new int[] { dataset, Analysis.numericColumn(datasets.get(dataset), parts[1]) };
+            }
+        }
+        write("Dataset comparison", Analysis.compareDatasets(datasets, names, columns));
+    }
+
+    private void visualize(List<String> args) throws Exception {
+        requireData();
+        String type = args.isEmpty() ? "" : args.get(0);
+        JFreeChart chart;
+        File png;
+        long points;
+        if (type.equals("histogram") && (args.size() == 3 || args.size() == 4)) {
+            int column = Analysis.numericColumn(data, args.get(1));
+            png = new File(args.get(2));
+            StreamingHistogram histogram = new StreamingHistogram();
+            histogram.add(data, column);
+            DefaultIntervalXYDataset dataset = new DefaultIntervalXYDataset();
+            HistogramPanel.fill(dataset, histogram,
+                    args.size() == 4 ? parseIndex(args.get(3)) : histogram.suggestedBins());
+            chart = HistogramPanel.createChart(data.attribute(column).name(), dataset);
+            points = histogram.count();
+        } else if (type.equals("scatter") && args.size() == 4) {
+            DownsampledScatterPlot plot = new DownsampledScatterPlot(data, Analysis.numericColumn(data, args.get(1)),
+                    Analysis.numericColumn(data, args.get(2)), "Scatter Plot");
+            png = new File(args.get(3));
+            chart = plot.getChart();
+            points = plot.sampledCount();
+        } else {
+            throw new IllegalArgumentException(
+                    "Usage: visualize histogram COLUMN PNG [BINS] | visualize scatter COLUMN COLUMN PNG");
+        }
+        ChartUtils.saveChartAsPNG(png, chart, CHART_WIDTH, CHART_HEIGHT);
+        write("Chart", LazyTableModel.of(new String[][] { { png.getPath(), String.valueOf(points) } },
+                new String[] { "File", "Points" }));
+    }
+
+    private void write(String title, TableModel table) throws IOException {
+        TableWriter.write(title, table, format, out);
+        if (format != TableWriter.Format.JSON) {
+            out.write('\n');
+        }
+    }
+
+    private Instances requireData() {
+        if (data == null) {
+            throw new IllegalStateException("No dataset loaded; use --data or the load command first");
+        }
+        return data;
+    }
+
+    private static void expectArgs(List<String> args, int count, String usage) {
+        if (args.size() != count) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private static int parseIndex(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number, got " + value);
+        }
+    }
+
+    /** Splits a script line on whitespace, keeping double-quoted parts together. */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(ch) && !quoted) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(ch);
+                inToken = true;
+            }
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
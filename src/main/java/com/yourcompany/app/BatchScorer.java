@@ -0,0 +1,174 @@
+package com.yourcompany.app;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Scores a CSV file with a trained classifier batch by batch. Each batch is
+ * partitioned across cores, every partition scored by its own copy of the
+ * model, and the predictions are written in input order to a CSV or ARFF
+ * file (chosen by the output file extension) through a buffered writer.
+ * <p>
+ * Each instance is classified exactly once: the class distribution is handed
+ * to the {@link BatchListener} so it can be fed to
+ * {@code Evaluation.evaluateModelOnceAndRecordPrediction} instead of calling
+ * {@code evaluateModel}, which would classify every instance a second time.
+ */
+public class BatchScorer {
+    private final Classifier[] copies;
+    private final Attribute classAttribute;
+    private int batchSize = StreamingCsvReader.DEFAULT_BATCH_SIZE;
+
+    /** Called after each batch, in input order, with the rows scored so far. */
+    @FunctionalInterface
+    public interface BatchListener {
+        void batchScored(Instances batch, double[][] distributions, long rowsScored) throws Exception;
+    }
+
+    public static final class Summary {
+        public final long rowsScored;
+        public final long unclassified;
+        public final long[] classCounts;
+
+        Summary(long rowsScored, long unclassified, long[] classCounts) {
+            this.rowsScored = rowsScored;
+            this.unclassified = unclassified;
+            this.classCounts = classCounts;
+        }
+    }
+
+    public BatchScorer(Classifier model, Instances header) throws Exception {
+        this(model, header, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public BatchScorer(Classifier model, Instances header, int threads) throws Exception {
+        this.copies = AbstractClassifier.makeCopies(model, Math.max(1, threads));
+        this.classAttribute = header.classAttribute();
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Summary score(StreamingCsvReader reader, File output, BatchListener listener) throws Exception {
+        boolean arff = output.getName().toLowerCase().endsWith(".arff");
+        long rowsScored = 0;
+        long unclassified = 0;
+        long[] classCounts = new long[classAttribute.numValues()];
+        try (BufferedWriter writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            writeHeader(writer, arff);
+            Instances batch;
+            while ((batch = reader.nextBatch(batchSize)) != null) {
+                double[][] distributions = scoreBatch(batch);
+                double[] predictions = new double[distributions.length];
+                for (int i = 0; i < predictions.length; i++) {
+                    predictions[i] = predictedClass(distributions[i]);
+                    writer.write(String.valueOf(rowsScored + i + 1));
+                    writer.write(',');
+                    if (Utils.isMissingValue(predictions[i])) {
+                        writer.write('?');
+                        unclassified++;
+                    } else {
+                        String label = classAttribute.value((int) predictions[i]);
+                        writer.write(arff ? Utils.quote(label) : csvField(label));
+                        classCounts[(int) predictions[i]]++;
+                    }
+                    writer.write('\n');
+                }
+                rowsScored += predictions.length;
+                listener.batchScored(batch, distributions, rowsScored);
+            }
+        }
+        return new Summary(rowsScored, unclassified, classCounts);
+    }
+
+    /** Returns the class distribution of every row, scored in parallel partitions. */
+    public double[][] scoreBatch(Instances batch) throws Exception {
+        double[][] distributions = new double[batch.numInstances()][];
+        int partitions = Math.min(copies.length, Math.max(1, batch.numInstances()));
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            Classifier copy = copies[p];
+            int from = (int) ((long) batch.numInstances() * p / partitions);
+            int to = (int) ((long) batch.numInstances() * (p + 1) / partitions);
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    Instance classMissing = (Instance) batch.instance(i).copy();
+                    classMissing.setDataset(batch);
+                    classMissing.setClassMissing();
+                    distributions[i] = copy.distributionForInstance(classMissing);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Scoring interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        return distributions;
+    }
+
+    /** Picks the class the same way AbstractClassifier.classifyInstance does. */
+    public double predictedClass(double[] distribution) {
+        if (classAttribute.isNumeric()) {
+            return distribution[0];
+        }
+        double max = 0;
+        int maxIndex = 0;
+        for (int i = 0; i < distribution.length; i++) {
+            if (distribution[i] > max) {
+                maxIndex = i;
+                max = distribution[i];
+            }
+        }
+        return max > 0 ? maxIndex : Utils.missingValue();
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void writeHeader(Writer writer, boolean arff) throws IOException {
+        if (!arff) {
+            writer.write("instance,predicted\n");
+            return;
+        }
+        writer.write("@relation predictions\n\n");
+        writer.write("@attribute instance numeric\n");
+        writer.write("@attribute predicted {");
+        for (int k = 0; k < classAttribute.numValues(); k++) {
+            if (k > 0) {
+                writer.write(',');
+            }
+            writer.write(Utils.quote(classAttribute.value(k)));
+        }
+        writer.write("}\n\n@data\n");
+    }
+}
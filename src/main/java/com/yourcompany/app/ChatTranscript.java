@@ -0,0 +1,327 @@
+package com.yourcompany.app;
+
+import javax.swing.AbstractListModel;
+import javax.swing.table.TableModel;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * List model behind the chat transcript. At most {@code maxEntries} entries
+ * are kept in a ring buffer; when it is full the oldest entry is handed to a
+ * background thread that appends it as text to a spill file, and a notice
+ * pointing at that file takes its place at the top of the list. Only the
+ * first {@value #SPILLED_TABLE_ROWS} rows of a table are spilled, so a lazy
+ * table is never formatted in full. Appending is
+ * constant time and fires one small interval event, so a {@code JList} over
+ * this model only lays out and paints the rows on screen however long the
+ * session runs.
+ * <p>
+ * Like other Swing models, it must only be used on the event dispatch thread.
+ */
+public class ChatTranscript extends AbstractListModel<ChatTranscript.Entry> {
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    public static final int SPILLED_TABLE_ROWS = 20;
+    private static final int SPILL_QUEUE_CAPACITY = 1000;
+
+    public enum Kind { USER, BOT, TABLE, PROGRESS, NOTICE }
+
+    public static final class Entry {
+        private final Kind kind;
+        private String text;
+        private final TableModel table;
+        private int progress;
+        private long sequence;
+
+        private Entry(Kind kind, String text, TableModel table) {
+            this.kind = kind;
+            this.text = text;
+            this.table = table;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public TableModel getTable() {
+            return table;
+        }
+
+        public int getProgress() {
+            return progress;
+        }
+    }
+
+    private final Entry[] ring;
+    private final File spillFile;
+    private int head;
+    private int count;
+    private long nextSequence;
+    private long spilled;
+    private Entry notice;
+    private File spillPath;
+    private final BlockingQueue<Entry> spillQueue = new ArrayBlockingQueue<>(SPILL_QUEUE_CAPACITY);
+    private final Entry endOfSpill = new Entry(Kind.NOTICE, null, null);
+    private Thread spillThread;
+    private volatile boolean spillFailed;
+
+    public ChatTranscript() {
+        this(DEFAULT_MAX_ENTRIES, null);
+    }
+
+    /**
+     * @param spillFile where evicted entries are written, or null for a
+     *                  temporary file created on first eviction
+     */
+    public ChatTranscript(int maxEntries, File spillFile) {
+        this.ring = new Entry[Math.max(1, maxEntries)];
+        this.spillFile = spillFile;
+    }
+
+    public Entry addMessage(String text, boolean isUser) {
+        return append(new Entry(isUser ? Kind.USER : Kind.BOT, text, null));
+    }
+
+    public Entry addTable(TableModel table) {
+        return append(new Entry(Kind.TABLE, null, table));
+    }
+
+    public Entry addProgress(String text) {
+        return append(new Entry(Kind.PROGRESS, text, null));
+    }
+
+    /** Updates a progress entry and repaints its row if it is still in the list. */
+    public void setProgress(Entry entry, int progress) {
+        entry.progress = progress;
+        int index = indexOf(entry);
+        if (index >= 0) {
+            fireContentsChanged(this, index, index);
+        }
+    }
+
+    /** Number of entries moved to the spill file so far. */
+    public long spilledCount() {
+        return spilled;
+    }
+
+    /** Waits for evicted entries to reach the spill file, then closes it. */
+    public void close() {
+        if (spillThread == null) {
+            return;
+        }
+        try {
+            spillQueue.put(endOfSpill);
+            spillThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spillThread = null;
+    }
+
+    @Override
+    public int getSize() {
+        return count + (notice != null ? 1 : 0);
+    }
+
+    @Override
+    public Entry getElementAt(int index) {
+        if (notice != null) {
+            if (index == 0) {
+                return notice;
+            }
+            index--;
+        }
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return ring[(head + index) % ring.length];
+    }
+
+    private int indexOf(Entry entry) {
+        long oldest = nextSequence - count;
+        if (entry.kind == Kind.NOTICE || entry.sequence < oldest) {
+            return -1;
+        }
+        return (int) (entry.sequence - oldest) + (notice != null ? 1 : 0);
+    }
+
+    private Entry append(Entry entry) {
+        entry.sequence = nextSequence++;
+        if (count == ring.length) {
+            spillOldest();
+        }
+        ring[(head + count) % ring.length] = entry;
+        count++;
+        int index = getSize() - 1;
+        fireIntervalAdded(this, index, index);
+        return entry;
+    }
+
+    private void spillOldest() {
+        Entry oldest = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        spilled++;
+        boolean saved = spill(oldest);
+        boolean firstSpill = notice == null;
+        if (firstSpill) {
+            notice = new Entry(Kind.NOTICE, null, null);
+        }
+        notice.text = spilled + " earlier messages "
+                + (saved ? "saved to " + spillPath.getAbsolutePath() : "discarded") + ".";
+        if (!firstSpill) {
+            fireIntervalRemoved(this, 1, 1);
+        }
+        // On the first spill the notice simply takes over the removed entry's row.
+        fireContentsChanged(this, 0, 0);
+    }
+
+    /** Queues an evicted entry for the spill thread, starting it on first use. */
+    private boolean spill(Entry entry) {
+        if (spillThread == null) {
+            try {
+                spillPath = spillFile != null ? spillFile : File.createTempFile("chat-transcript-", ".txt");
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+            spillThread = new Thread(this::writeSpills, "chat-transcript-spill");
+            spillThread.setDaemon(true);
+            spillThread.start();
+        }
+        if (spillFailed) {
+            return false;
+        }
+        if (entry.kind == Kind.PROGRESS) {
+            // Progress can still change after eviction; spill what it showed when it left the list.
+            Entry snapshot = new Entry(Kind.PROGRESS, entry.text, null);
+            snapshot.progress = entry.progress;
+            entry = snapshot;
+        } else if (entry.kind == Kind.TABLE) {
+            // Table models belong to the EDT, and the preview is small enough to format here.
+            entry = new Entry(Kind.TABLE, tablePreview(entry.table), null);
+        }
+        try {
+            // Blocks only if evictions outrun the disk by a whole queue.
+            spillQueue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs on the spill thread: writes whatever entries are queued and
+     * flushes once per batch. After a write error it keeps draining the
+     * queue so appends never block on it.
+     */
+    private void writeSpills() {
+        BufferedWriter writer = null;
+        List<Entry> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(spillQueue.take());
+                spillQueue.drainTo(batch);
+                for (Entry entry : batch) {
+                    if (entry == endOfSpill) {
+                        return;
+                    }
+                    if (spillFailed) {
+                        continue;
+                    }
+                    try {
+                        if (writer == null) {
+                            writer = Files.newBufferedWriter(spillPath.toPath(), StandardCharsets.UTF_8,
+                                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        }
+                        writeEntry(writer, entry);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        spillFailed = true;
+                    }
+                }
+                batch.clear();
+                flush(writer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flush(writer);
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void flush(BufferedWriter writer) {
+        if (writer == null || spillFailed) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+            spillFailed = true;
+        }
+    }
+
+    private static void writeEntry(BufferedWriter writer, Entry entry) throws IOException {
+        switch (entry.kind) {
+            case USER:
+                writer.write("You: " + entry.text);
+                break;
+            case TABLE:
+                writer.write(entry.text);
+                break;
+            case PROGRESS:
+                writer.write("Bot: " + entry.text + " (" + entry.progress + "%)");
+                break;
+            default:
+                writer.write("Bot: " + entry.text);
+        }
+        writer.newLine();
+    }
+
+    /** The column names and first rows of {@code table}, tab separated, and how many rows were left out. */
+    private static String tablePreview(TableModel table) {
+        StringBuilder text = new StringBuilder();
+        for (int c = 0; c < table.getColumnCount(); c++) {
+            if (c > 0) {
+                text.append('\t');
+            }
+            text.append(table.getColumnName(c));
+        }
+        int rows = Math.min(table.getRowCount(), SPILLED_TABLE_ROWS);
+        for (int r = 0; r < rows; r++) {
+            text.append(System.lineSeparator());
+            for (int c = 0; c < table.getColumnCount(); c++) {
+                if (c > 0) {
+                    text.append('\t');
+                }
+                text.append(table.getValueAt(r, c));
+            }
+        }
+        if (table.getRowCount() > rows) {
+            text.append(System.lineSeparator()).append("... ").append(table.getRowCount() - rows)
+                    .append(" more rows");
+        }
+        return text.toString();
+    }
+}
@@ -5,13 +5,7 @@ import weka.classifiers.trees.J48;
 import weka.core.Instance;
 import weka.core.Instances;
 import weka.core.converters.CSVLoader;
-import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.statistics.HistogramDataset;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
 import java.awt.*;
@@ -35,6 +29,7 @@ public class ChatbotApp extends JFrame {
             "predict",
             "compare datasets"
     };
+    private static final CommandMatcher COMMAND_MATCHER = new CommandMatcher(COMMANDS, 3);
 
     public ChatbotApp() {
         setTitle("Data Analysis Chatbot");
@@ -107,37 +102,7 @@ public class ChatbotApp extends JFrame {
     }
 
     private String getClosestCommand(String userInput) {
-        int minDistance = Integer.MAX_VALUE;
-        String closestCommand = null;
-
-        for (String command : COMMANDS) {
-            int distance = levenshteinDistance(userInput, command);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closestCommand = command;
-            }
-        }
-
-        return minDistance <= 3 ? closestCommand : null;
-    }
-
-    private int levenshteinDistance(String a, String b) {
-        int[][] dp = new int[a.length() + 1][b.length() + 1];
-
-        for (int i = 0; i <= a.length(); i++) {
-            for (int j = 0; j <= b.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
-                            Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1));
-                }
-            }
-        }
-
-        return dp[a.length()][b.length()];
+        return COMMAND_MATCHER.closest(userInput);
     }
 
     private void loadDataset() {
@@ -206,20 +171,9 @@ public class ChatbotApp extends JFrame {
         int attributeIndex = Integer
                 .parseInt(JOptionPane.showInputDialog(this, "Enter the index of the numeric attribute to visualize:"));
 
-        double[] values = data.attributeToDoubleArray(attributeIndex);
-        HistogramDataset dataset = new HistogramDataset();
-        dataset.addSeries("Histogram", values, 10);
-
-        JFreeChart chart = ChartFactory.createHistogram("Histogram", "Values", "Frequency", dataset);
-        chart.setBackgroundPaint(Color.WHITE);
-        chart.getTitle().setPaint(Color.DARK_GRAY);
-
-        XYPlot plot = (XYPlot) chart.getPlot();
-        plot.setDomainGridlinePaint(Color.DARK_GRAY);
-        plot.setRangeGridlinePaint(Color.DARK_GRAY);
-
-        ChartPanel chartPanel = new ChartPanel(chart);
-        panel.add(chartPanel, BorderLayout.CENTER);
+        StreamingHistogram histogram = new StreamingHistogram();
+        histogram.add(data, attributeIndex);
+        panel.add(new HistogramPanel(histogram, data.attribute(attributeIndex).name()), BorderLayout.CENTER);
 
         frame.setVisible(true);
     }
@@ -231,21 +185,8 @@ public class ChatbotApp extends JFrame {
         int attributeIndex2 = Integer.parseInt(
                 JOptionPane.showInputDialog(this, "Enter the index of the second numeric attribute to visualize:"));
 
-        XYSeriesCollection dataset = new XYSeriesCollection();
-        XYSeries series = new XYSeries("Scatter Plot");
-        for (Instance instance : data) {
-            double x = instance.value(attributeIndex1);
-            double y = instance.value(attributeIndex2);
-            series.add(x, y);
-        }
-        dataset.addSeries(series);
-
-        JFreeChart chart = ChartFactory.createScatterPlot("Scatter Plot", data.attribute(attributeIndex1).name(),
-                data.attribute(attributeIndex2).name(), dataset);
-        chart.setBackgroundPaint(Color.WHITE);
-        chart.getTitle().setPaint(Color.DARK_GRAY);
-
-        ChartPanel chartPanel = new ChartPanel(chart);
+        ChartPanel chartPanel = new DownsampledScatterPlot(data, attributeIndex1, attributeIndex2, "Scatter Plot")
+                .getChartPanel();
         JFrame frame = new JFrame("Scatter Plot");
         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         frame.getContentPane().add(chartPanel);
@@ -266,7 +207,7 @@ public class ChatbotApp extends JFrame {
                 chatArea.append("Standard Deviation: " + stats[3] + "\n");
             } else {
                 chatArea.append("Type: Nominal\n");
-                chatArea.append("Distinct Values: " + data.attributeStats(i).nominalCounts.length + "\n");
+                chatArea.append("Distinct Values: " + ColumnStatsEngine.getStats(data, i).nominalCounts.length + "\n");
             }
         }
     }
@@ -304,11 +245,7 @@ public class ChatbotApp extends JFrame {
 
     private double[] calculateColumnStats(Instances data, int columnIndex) {
         if (data.attribute(columnIndex).isNumeric()) {
-            double min = data.attributeStats(columnIndex).numericStats.min;
-            double max = data.attributeStats(columnIndex).numericStats.max;
-            double mean = data.attributeStats(columnIndex).numericStats.mean;
-            double stdDev = data.attributeStats(columnIndex).numericStats.stdDev;
-            return new double[] { min, max, mean, stdDev };
+            return ColumnStatsEngine.getStats(data, columnIndex).toArray();
         } else {
             return null;
         }
@@ -404,16 +341,16 @@ public class ChatbotApp extends JFrame {
                 newData.setClassIndex(newData.numAttributes() - 1);
             }
 
+            // Each distribution is computed once and feeds both the output and the evaluation.
+            Evaluation eval = new Evaluation(data);
             chatArea.append("Predictions for the new unlabelled dataset:\n");
             for (int i = 0; i < newData.numInstances(); i++) {
-                double predictedClass = j48Classifier.classifyInstance(newData.instance(i));
+                double[] distribution = j48Classifier.distributionForInstance(newData.instance(i));
+                double predictedClass = eval.evaluateModelOnceAndRecordPrediction(distribution, newData.instance(i));
                 chatArea.append("Instance " + (i + 1) + ": Predicted class - "
                         + data.classAttribute().value((int) predictedClass) + "\n");
             }
 
-            Evaluation eval = new Evaluation(data);
-            eval.evaluateModel(j48Classifier, newData);
-
             int response = JOptionPane.showConfirmDialog(this, "Do you want to see evaluation metrics?",
                     "Evaluation Metrics", JOptionPane.YES_NO_OPTION);
             if (response == JOptionPane.YES_OPTION) {
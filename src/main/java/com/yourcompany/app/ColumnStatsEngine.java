@@ -0,0 +1,518 @@
+package com.yourcompany.app;
+
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes min/max/mean/std dev, missing counts and nominal counts for every
+ * attribute of a dataset in a single pass, instead of one
+ * {@code attributeStats} sort per statistic and column. On request, numeric
+ * columns also get a {@link QuantileSketch} and a {@link DistinctCountSketch},
+ * so medians, percentiles and distinct counts come from the same pass in
+ * bounded memory. The sketches cost several times the rest of the pass, so
+ * only views that show them ask for them.
+ */
+public final class ColumnStatsEngine {
+    private static final int ROWS_PER_TASK = 16384;
+    private static final int MAX_CACHED_DATASETS = 8;
+
+    private static final Map<DatasetKey, CachedStats> CACHE = new LinkedHashMap<DatasetKey, CachedStats>(16,
+            0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DatasetKey, CachedStats> eldest) {
+            return size() > MAX_CACHED_DATASETS || eldest.getKey().ref.get() == null;
+        }
+    };
+
+    private ColumnStatsEngine() {
+    }
+
+    public static final class ColumnStats {
+        public final double min;
+        public final double max;
+        public final double mean;
+        public final double stdDev;
+        public final double count;
+        public final int missingCount;
+        public final int[] nominalCounts;
+        /**
+         * Sketches of a numeric column's values, not to be modified; null for
+         * other columns and when the statistics were computed without sketches.
+         */
+        public final QuantileSketch quantiles;
+        public final DistinctCountSketch distinctValues;
+
+        ColumnStats(double min, double max, double mean, double stdDev, double count, int missingCount,
+                int[] nominalCounts, QuantileSketch quantiles, DistinctCountSketch distinctValues) {
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.count = count;
+            this.missingCount = missingCount;
+            this.nominalCounts = nominalCounts;
+            this.quantiles = quantiles;
+            this.distinctValues = distinctValues;
+        }
+
+        /** The approximate {@code q} quantile of a sketched numeric column; NaN otherwise. */
+        public double quantile(double q) {
+            return quantiles != null ? quantiles.quantile(q) : Double.NaN;
+        }
+
+        /**
+         * Distinct non-missing values: estimated for a sketched numeric
+         * column, exact for a nominal one and -1 otherwise.
+         */
+        public long distinctCount() {
+            if (distinctValues != null) {
+                return distinctValues.estimate();
+            }
+            if (nominalCounts == null) {
+                return -1;
+            }
+            long distinct = 0;
+            for (int n : nominalCounts) {
+                if (n > 0) {
+                    distinct++;
+                }
+            }
+            return distinct;
+        }
+
+        /** Returns {min, max, mean, stdDev}, the layout used by calculateColumnStats. */
+        public double[] toArray() {
+            return new double[] { min, max, mean, stdDev };
+        }
+    }
+
+    /**
+     * Returns the statistics of every attribute in {@code data}, computing them
+     * once per dataset and answering later calls from the cache.
+     */
+    public static ColumnStats[] getStats(Instances data) {
+        return getStats(data, false);
+    }
+
+    public static ColumnStats getStats(Instances data, int columnIndex) {
+        return getStats(data)[columnIndex];
+    }
+
+    /**
+     * Like {@link #getStats(Instances)}, with the quantile and distinct-count
+     * sketches when {@code sketches} is set. Sketched statistics in the cache
+     * also answer calls that do not need the sketches.
+     */
+    public static ColumnStats[] getStats(Instances data, boolean sketches) {
+        DatasetKey key = new DatasetKey(data);
+        synchronized (CACHE) {
+            CachedStats cached = CACHE.get(key);
+            if (cached != null && cached.matches(data) && (cached.sketches || !sketches)) {
+                return cached.stats;
+            }
+        }
+        ColumnStats[] stats = compute(data, sketches);
+        synchronized (CACHE) {
+            CACHE.put(key, new CachedStats(data, stats, sketches));
+        }
+        return stats;
+    }
+
+    /** Drops cached statistics for a dataset that has been modified in place. */
+    public static void invalidate(Instances data) {
+        synchronized (CACHE) {
+            CACHE.remove(new DatasetKey(data));
+        }
+    }
+
+    public static ColumnStats[] compute(Instances data) {
+        return compute(data, false);
+    }
+
+    public static ColumnStats[] compute(Instances data, boolean sketches) {
+        ColumnarDataset columns = ColumnarDataset.backing(data);
+        if (columns != null) {
+            return compute(columns, sketches);
+        }
+        return new Accumulator(data, sketches).add(data).finish();
+    }
+
+    public static ColumnStats[] compute(ColumnarDataset columns) {
+        return compute(columns, false);
+    }
+
+    /** Scans each column's array directly, chunk by chunk, instead of visiting every row object. */
+    public static ColumnStats[] compute(ColumnarDataset columns, boolean sketches) {
+        return ForkJoinPool.commonPool().invoke(new ColumnChunkTask(columns, 0, columns.numRows(), sketches))
+                .finish();
+    }
+
+    /**
+     * Statistics of one numeric column over the rows behind all of
+     * {@code parts}, such as the same column in several files. The sketches
+     * are merged rather than recomputed, and left out unless every part has
+     * them.
+     */
+    public static ColumnStats combine(List<ColumnStats> parts) {
+        double weight = 0;
+        double mean = 0;
+        double m2 = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        int missing = 0;
+        QuantileSketch quantiles = new QuantileSketch();
+        DistinctCountSketch distinct = new DistinctCountSketch();
+        for (ColumnStats part : parts) {
+            missing += part.missingCount;
+            if (part.quantiles == null) {
+                quantiles = null;
+                distinct = null;
+            } else if (quantiles != null) {
+                quantiles.merge(part.quantiles);
+                distinct.merge(part.distinctValues);
+            }
+            if (part.count == 0) {
+                continue;
+            }
+            double partM2 = part.count > 1 ? part.stdDev * part.stdDev * (part.count - 1) : 0;
+            double total = weight + part.count;
+            double delta = part.mean - mean;
+            mean += delta * part.count / total;
+            m2 += partM2 + delta * delta * weight * part.count / total;
+            weight = total;
+            min = Math.min(min, part.min);
+            max = Math.max(max, part.max);
+        }
+        if (weight == 0) {
+            return new ColumnStats(Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, missing, null, quantiles,
+                    distinct);
+        }
+        double stdDev = weight > 1 ? Math.sqrt(Math.max(0, m2 / (weight - 1))) : Double.NaN;
+        return new ColumnStats(min, max, mean, stdDev, weight, missing, null, quantiles, distinct);
+    }
+
+    /**
+     * Computes the statistics of a CSV file batch by batch, so memory is
+     * bounded by the batch size rather than the file size.
+     */
+    public static ColumnStats[] compute(StreamingCsvReader reader, int batchSize) throws IOException {
+        return compute(reader, batchSize, false);
+    }
+
+    public static ColumnStats[] compute(StreamingCsvReader reader, int batchSize, boolean sketches)
+            throws IOException {
+        Accumulator acc = new Accumulator(reader.getStructure(), sketches);
+        Instances batch;
+        while ((batch = reader.nextBatch(batchSize)) != null) {
+            acc.add(batch);
+        }
+        return acc.finish();
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Accumulator> {
+        private final Instances data;
+        private final int from;
+        private final int to;
+        private final boolean sketches;
+
+        ChunkTask(Instances data, int from, int to, boolean sketches) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.sketches = sketches;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                Accumulator acc = new Accumulator(data, sketches);
+                for (int r = from; r < to; r++) {
+                    acc.add(data.instance(r));
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(data, from, mid, sketches);
+            left.fork();
+            Accumulator right = new ChunkTask(data, mid, to, sketches).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class ColumnChunkTask extends RecursiveTask<Accumulator> {
+        private final ColumnarDataset columns;
+        private final int from;
+        private final int to;
+        private final boolean sketches;
+
+        ColumnChunkTask(ColumnarDataset columns, int from, int to, boolean sketches) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.sketches = sketches;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                Accumulator acc = new Accumulator(columns.header(), sketches);
+                for (int c = 0; c < columns.numColumns(); c++) {
+                    if (columns.numericColumn(c) != null) {
+                        acc.add(c, columns.numericColumn(c), from, to);
+                    } else {
+                        acc.add(c, columns.codeColumn(c), from, to);
+                    }
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            ColumnChunkTask left = new ColumnChunkTask(columns, from, mid, sketches);
+            left.fork();
+            Accumulator right = new ColumnChunkTask(columns, mid, to, sketches).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Per-column Welford accumulators held in primitive arrays so that one row
+     * updates every column without allocating. Accumulators over disjoint rows
+     * can be merged, which is how chunks and streamed batches are combined.
+     * The optional sketches count every row once, whatever its weight.
+     */
+    public static final class Accumulator {
+        private final boolean[] numeric;
+        private final double[] weight;
+        private final double[] mean;
+        private final double[] m2;
+        private final double[] min;
+        private final double[] max;
+        private final int[] missing;
+        private final int[][] nominalCounts;
+        private final QuantileSketch[] quantiles;
+        private final DistinctCountSketch[] distinct;
+        private final boolean sketches;
+
+        public Accumulator(Instances header) {
+            this(header, false);
+        }
+
+        /** With {@code sketches} set, numeric columns also get quantile and distinct-count sketches. */
+        public Accumulator(Instances header, boolean sketches) {
+            this.sketches = sketches;
+            int numAttributes = header.numAttributes();
+            numeric = new boolean[numAttributes];
+            weight = new double[numAttributes];
+            mean = new double[numAttributes];
+            m2 = new double[numAttributes];
+            min = new double[numAttributes];
+            max = new double[numAttributes];
+            missing = new int[numAttributes];
+            nominalCounts = new int[numAttributes][];
+            quantiles = new QuantileSketch[numAttributes];
+            distinct = new DistinctCountSketch[numAttributes];
+            for (int c = 0; c < numAttributes; c++) {
+                numeric[c] = header.attribute(c).isNumeric();
+                min[c] = Double.POSITIVE_INFINITY;
+                max[c] = Double.NEGATIVE_INFINITY;
+                if (numeric[c] && sketches) {
+                    quantiles[c] = new QuantileSketch();
+                    distinct[c] = new DistinctCountSketch();
+                }
+                if (header.attribute(c).isNominal()) {
+                    nominalCounts[c] = new int[header.attribute(c).numValues()];
+                }
+            }
+        }
+
+        /** Adds every row of {@code batch}, splitting it into fork-join chunks. */
+        public Accumulator add(Instances batch) {
+            return merge(ForkJoinPool.commonPool().invoke(new ChunkTask(batch, 0, batch.numInstances(), sketches)));
+        }
+
+        void add(Instance instance) {
+            double w = instance.weight();
+            for (int c = 0; c < numeric.length; c++) {
+                double v = instance.value(c);
+                if (Utils.isMissingValue(v)) {
+                    missing[c]++;
+                } else if (numeric[c]) {
+                    add(c, v, w);
+                } else if (nominalCounts[c] != null) {
+                    nominalCounts[c][(int) v]++;
+                }
+            }
+        }
+
+        void add(int c, double v, double w) {
+            double total = weight[c] + w;
+            double delta = v - mean[c];
+            mean[c] += delta * w / total;
+            m2[c] += w * delta * (v - mean[c]);
+            weight[c] = total;
+            if (v < min[c]) {
+                min[c] = v;
+            }
+            if (v > max[c]) {
+                max[c] = v;
+            }
+            if (quantiles[c] != null) {
+                quantiles[c].add(v);
+                distinct[c].add(v);
+            }
+        }
+
+        /**
+         * Adds rows {@code from} to {@code to} of a numeric column, each with
+         * weight one: two passes over the rows for their mean and squared
+         * deviations, folded in the way {@link #merge} folds accumulators.
+         */
+        void add(int c, double[] values, int from, int to) {
+            double sum = 0;
+            int count = 0;
+            double lo = Double.POSITIVE_INFINITY;
+            double hi = Double.NEGATIVE_INFINITY;
+            for (int r = from; r < to; r++) {
+                double v = values[r];
+                if (!Double.isNaN(v)) {
+                    sum += v;
+                    count++;
+                    if (v < lo) {
+                        lo = v;
+                    }
+                    if (v > hi) {
+                        hi = v;
+                    }
+                }
+            }
+            missing[c] += to - from - count;
+            if (count == 0) {
+                return;
+            }
+            if (quantiles[c] != null) {
+                for (int r = from; r < to; r++) {
+                    quantiles[c].add(values[r]);
+                    distinct[c].add(values[r]);
+                }
+            }
+            double chunkMean = sum / count;
+            double squares = 0;
+            for (int r = from; r < to; r++) {
+                double v = values[r];
+                if (!Double.isNaN(v)) {
+                    double delta = v - chunkMean;
+                    squares += delta * delta;
+                }
+            }
+            combine(c, count, chunkMean, squares, lo, hi);
+        }
+
+        /** Adds rows {@code from} to {@code to} of a dictionary-coded column. */
+        void add(int c, int[] codes, int from, int to) {
+            int[] counts = nominalCounts[c];
+            for (int r = from; r < to; r++) {
+                int code = codes[r];
+                if (code < 0) {
+                    missing[c]++;
+                } else if (counts != null) {
+                    counts[code]++;
+                }
+            }
+        }
+
+        public Accumulator merge(Accumulator other) {
+            for (int c = 0; c < numeric.length; c++) {
+                missing[c] += other.missing[c];
+                if (nominalCounts[c] != null) {
+                    for (int k = 0; k < nominalCounts[c].length; k++) {
+                        nominalCounts[c][k] += other.nominalCounts[c][k];
+                    }
+                }
+                if (quantiles[c] != null) {
+                    quantiles[c].merge(other.quantiles[c]);
+                    distinct[c].merge(other.distinct[c]);
+                }
+                if (other.weight[c] > 0) {
+                    combine(c, other.weight[c], other.mean[c], other.m2[c], other.min[c], other.max[c]);
+                }
+            }
+            return this;
+        }
+
+        private void combine(int c, double otherWeight, double otherMean, double otherM2, double otherMin,
+                double otherMax) {
+            double total = weight[c] + otherWeight;
+            double delta = otherMean - mean[c];
+            mean[c] += delta * otherWeight / total;
+            m2[c] += otherM2 + delta * delta * weight[c] * otherWeight / total;
+            weight[c] = total;
+            min[c] = Math.min(min[c], otherMin);
+            max[c] = Math.max(max[c], otherMax);
+        }
+
+        public ColumnStats[] finish() {
+            ColumnStats[] result = new ColumnStats[numeric.length];
+            for (int c = 0; c < numeric.length; c++) {
+                if (weight[c] == 0) {
+                    result[c] = new ColumnStats(Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, missing[c],
+                            nominalCounts[c], quantiles[c], distinct[c]);
+                    continue;
+                }
+                double stdDev = weight[c] > 1 ? Math.sqrt(Math.max(0, m2[c] / (weight[c] - 1))) : Double.NaN;
+                result[c] = new ColumnStats(min[c], max[c], mean[c], stdDev, weight[c], missing[c],
+                        nominalCounts[c], quantiles[c], distinct[c]);
+            }
+            return result;
+        }
+    }
+
+    private static final class DatasetKey {
+        private final WeakReference<Instances> ref;
+        private final int hash;
+
+        DatasetKey(Instances data) {
+            this.ref = new WeakReference<>(data);
+            this.hash = System.identityHashCode(data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DatasetKey)) {
+                return false;
+            }
+            Instances data = ref.get();
+            return data != null && data == ((DatasetKey) o).ref.get();
+        }
+    }
+
+    private static final class CachedStats {
+        private final int numInstances;
+        private final int numAttributes;
+        private final ColumnStats[] stats;
+        private final boolean sketches;
+
+        CachedStats(Instances data, ColumnStats[] stats, boolean sketches) {
+            this.numInstances = data.numInstances();
+            this.numAttributes = data.numAttributes();
+            this.stats = stats;
+            this.sketches = sketches;
+        }
+
+        boolean matches(Instances data) {
+            return numInstances == data.numInstances() && numAttributes == data.numAttributes();
+        }
+    }
+}
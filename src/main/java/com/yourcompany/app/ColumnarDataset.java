@@ -0,0 +1,307 @@
+package com.yourcompany.app;
+
+import weka.core.AbstractInstance;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.io.Serializable;
+
+/**
+ * A dataset held column by column: one {@code double[]} per numeric column
+ * and one {@code int[]} of dictionary codes per nominal or string column,
+ * with -1 for a missing value and the attribute's values as the dictionary.
+ * <p>
+ * {@link #asInstances()} presents the columns to Weka as {@link Instances}
+ * whose rows are small views that read from the arrays, so J48, Evaluation
+ * and the rest of Weka work unchanged without a {@code double[]} per row.
+ * A view only gets its own values when it is modified, and copies of a view
+ * are views too. Column kernels such as the statistics, the histogram and
+ * the scatter plot read the arrays directly while the adapter is unchanged.
+ */
+public final class ColumnarDataset implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Instances header;
+    private final int numRows;
+    private final double[][] numericColumns;
+    private final int[][] codeColumns;
+
+    /**
+     * Wraps columns that are no longer written to. For each column exactly
+     * one of {@code numericColumns[c]} and {@code codeColumns[c]} is set,
+     * matching whether attribute {@code c} of {@code header} is numeric.
+     */
+    ColumnarDataset(Instances header, int numRows, double[][] numericColumns, int[][] codeColumns) {
+        this.header = new Instances(header, 0);
+        this.numRows = numRows;
+        this.numericColumns = numericColumns;
+        this.codeColumns = codeColumns;
+    }
+
+    /** Copies {@code data} into columns; row weights are not kept. */
+    public static ColumnarDataset of(Instances data) {
+        int numColumns = data.numAttributes();
+        int numRows = data.numInstances();
+        double[][] numericColumns = new double[numColumns][];
+        int[][] codeColumns = new int[numColumns][];
+        for (int c = 0; c < numColumns; c++) {
+            if (data.attribute(c).isNumeric()) {
+                numericColumns[c] = new double[numRows];
+            } else {
+                codeColumns[c] = new int[numRows];
+            }
+        }
+        for (int r = 0; r < numRows; r++) {
+            Instance instance = data.instance(r);
+            for (int c = 0; c < numColumns; c++) {
+                double value = instance.value(c);
+                if (numericColumns[c] != null) {
+                    numericColumns[c][r] = value;
+                } else {
+                    codeColumns[c][r] = Utils.isMissingValue(value) ? -1 : (int) value;
+                }
+            }
+        }
+        return new ColumnarDataset(data, numRows, numericColumns, codeColumns);
+    }
+
+    /**
+     * The columns behind {@code data}, or null if {@code data} is not a
+     * columnar adapter or its rows have been reordered, replaced, reweighted
+     * or modified since it was created.
+     */
+    public static ColumnarDataset backing(Instances data) {
+        return data instanceof View && ((View) data).isUnchanged() ? ((View) data).store : null;
+    }
+
+    /** Values of attribute {@code index}, like {@link Instances#attributeToDoubleArray}. */
+    public static double[] attributeToDoubleArray(Instances data, int index) {
+        ColumnarDataset columns = backing(data);
+        return columns != null ? columns.toDoubleArray(index) : data.attributeToDoubleArray(index);
+    }
+
+    /** A new {@link Instances} adapter over these columns, with the header's class index. */
+    public Instances asInstances() {
+        return new View(this);
+    }
+
+    /** The attributes, with no rows. */
+    public Instances header() {
+        return header;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public int numColumns() {
+        return header.numAttributes();
+    }
+
+    /** The backing array of a numeric column, not to be modified; null for other columns. */
+    public double[] numericColumn(int column) {
+        return numericColumns[column];
+    }
+
+    /** The backing dictionary codes of a nominal or string column, not to be modified; null for numeric ones. */
+    public int[] codeColumn(int column) {
+        return codeColumns[column];
+    }
+
+    public double value(int row, int column) {
+        double[] numeric = numericColumns[column];
+        if (numeric != null) {
+            return numeric[row];
+        }
+        int code = codeColumns[column][row];
+        return code < 0 ? Utils.missingValue() : code;
+    }
+
+    /** A copy of one column as Weka values. */
+    public double[] toDoubleArray(int column) {
+        if (numericColumns[column] != null) {
+            return numericColumns[column].clone();
+        }
+        int[] codes = codeColumns[column];
+        double[] values = new double[numRows];
+        for (int r = 0; r < numRows; r++) {
+            values[r] = codes[r] < 0 ? Utils.missingValue() : codes[r];
+        }
+        return values;
+    }
+
+    /** The {@link Instances} adapter; its rows are added without the copy {@code add} makes. */
+    private static final class View extends Instances {
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnarDataset store;
+
+        View(ColumnarDataset store) {
+            super(store.header, store.numRows);
+            this.store = store;
+            for (int r = 0; r < store.numRows; r++) {
+                ColumnarInstance instance = new ColumnarInstance(store, r, null, 1);
+                instance.setDataset(this);
+                m_Instances.add(instance);
+            }
+        }
+
+        boolean isUnchanged() {
+            if (numInstances() != store.numRows || numAttributes() != store.numColumns()) {
+                return false;
+            }
+            for (int r = 0; r < store.numRows; r++) {
+                Instance instance = m_Instances.get(r);
+                if (!(instance instanceof ColumnarInstance) || !((ColumnarInstance) instance).isRow(store, r)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One row of a {@link ColumnarDataset}. Values are read from the columns
+     * until the first modification, which copies the row into
+     * {@code m_AttValues}, as a {@link DenseInstance} would hold it.
+     */
+    private static final class ColumnarInstance extends AbstractInstance {
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnarDataset store;
+        private final int row;
+
+        ColumnarInstance(ColumnarDataset store, int row, double[] values, double weight) {
+            this.store = store;
+            this.row = row;
+            m_AttValues = values;
+            m_Weight = weight;
+        }
+
+        boolean isRow(ColumnarDataset store, int row) {
+            return this.store == store && this.row == row && m_AttValues == null && m_Weight == 1;
+        }
+
+        private double[] values() {
+            if (m_AttValues == null) {
+                m_AttValues = toDoubleArray();
+            }
+            return m_AttValues;
+        }
+
+        @Override
+        public double value(int attIndex) {
+            return m_AttValues != null ? m_AttValues[attIndex] : store.value(row, attIndex);
+        }
+
+        @Override
+        public double valueSparse(int indexOfIndex) {
+            return value(indexOfIndex);
+        }
+
+        @Override
+        public double[] toDoubleArray() {
+            if (m_AttValues != null) {
+                return m_AttValues.clone();
+            }
+            double[] values = new double[store.numColumns()];
+            for (int c = 0; c < values.length; c++) {
+                values[c] = store.value(row, c);
+            }
+            return values;
+        }
+
+        @Override
+        public Object copy() {
+            ColumnarInstance copy = new ColumnarInstance(store, row,
+                    m_AttValues != null ? m_AttValues.clone() : null, m_Weight);
+            copy.m_Dataset = m_Dataset;
+            return copy;
+        }
+
+        @Override
+        public Instance copy(double[] values) {
+            DenseInstance copy = new DenseInstance(m_Weight, values);
+            copy.setDataset(m_Dataset);
+            return copy;
+        }
+
+        @Override
+        public int index(int position) {
+            return position;
+        }
+
+        @Override
+        public Instance mergeInstance(Instance inst) {
+            return new DenseInstance(this).mergeInstance(inst);
+        }
+
+        @Override
+        public int numAttributes() {
+            return m_AttValues != null ? m_AttValues.length : store.numColumns();
+        }
+
+        @Override
+        public int numValues() {
+            return numAttributes();
+        }
+
+        @Override
+        public void replaceMissingValues(double[] array) {
+            double[] values = values();
+            for (int i = 0; i < values.length; i++) {
+                if (Utils.isMissingValue(values[i])) {
+                    values[i] = array[i];
+                }
+            }
+        }
+
+        @Override
+        public void setValue(int attIndex, double value) {
+            values()[attIndex] = value;
+        }
+
+        @Override
+        public void setValueSparse(int indexOfIndex, double value) {
+            setValue(indexOfIndex, value);
+        }
+
+        @Override
+        public String toStringNoWeight() {
+            return toStringNoWeight(AbstractInstance.s_numericAfterDecimalPoint);
+        }
+
+        @Override
+        public String toStringNoWeight(int afterDecimalPoint) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < numAttributes(); i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                text.append(toString(i, afterDecimalPoint));
+            }
+            return text.toString();
+        }
+
+        @Override
+        protected void forceDeleteAttributeAt(int position) {
+            double[] values = values();
+            double[] newValues = new double[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, position);
+            System.arraycopy(values, position + 1, newValues, position, values.length - position - 1);
+            m_AttValues = newValues;
+        }
+
+        @Override
+        protected void forceInsertAttributeAt(int position) {
+            double[] values = values();
+            double[] newValues = new double[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, position);
+            newValues[position] = Utils.missingValue();
+            System.arraycopy(values, position, newValues, position + 1, values.length - position);
+            m_AttValues = newValues;
+        }
+    }
+}
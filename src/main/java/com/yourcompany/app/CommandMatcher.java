@@ -0,0 +1,157 @@
+package com.yourcompany.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fuzzy command lookup backed by a BK-tree over Levenshtein distance. The
+ * tree is built once, so a lookup only computes distances for the few terms
+ * the triangle inequality cannot rule out instead of for every command.
+ * Distances are computed with two reusable rows and give up as soon as a row
+ * exceeds the largest distance that could still matter.
+ * <p>
+ * Several terms (aliases) may map to the same command. When terms tie on
+ * distance, the one added first wins, as with a linear scan.
+ */
+public class CommandMatcher {
+    private final int maxDistance;
+    private Node root;
+    private int size;
+    private int[] previousRow = new int[0];
+    private int[] currentRow = new int[0];
+
+    private static final class Node {
+        final String term;
+        final String command;
+        final int order;
+        Node[] children = new Node[0];
+        /** Distance from this term to each child's term. */
+        int[] edges = new int[0];
+        int maxEdge;
+
+        Node(String term, String command, int order) {
+            this.term = term;
+            this.command = command;
+            this.order = order;
+        }
+    }
+
+    public CommandMatcher(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    public CommandMatcher(String[] commands, int maxDistance) {
+        this(maxDistance);
+        for (String command : commands) {
+            add(command, command);
+        }
+    }
+
+    /** Adds {@code term} as a spelling of {@code command}; a term that is already present is ignored. */
+    public synchronized void add(String term, String command) {
+        Node node = new Node(term, command, size);
+        if (root == null) {
+            root = node;
+            size++;
+            return;
+        }
+        Node current = root;
+        while (true) {
+            int d = distance(term, current.term, Integer.MAX_VALUE);
+            if (d == 0) {
+                return;
+            }
+            Node next = null;
+            for (int i = 0; i < current.children.length; i++) {
+                if (current.edges[i] == d) {
+                    next = current.children[i];
+                    break;
+                }
+            }
+            if (next == null) {
+                int index = current.children.length;
+                current.children = Arrays.copyOf(current.children, index + 1);
+                current.edges = Arrays.copyOf(current.edges, index + 1);
+                current.children[index] = node;
+                current.edges[index] = d;
+                current.maxEdge = Math.max(current.maxEdge, d);
+                size++;
+                return;
+            }
+            current = next;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the command whose term is closest to {@code input}, or null if
+     * none is within the maximum distance.
+     */
+    public synchronized String closest(String input) {
+        if (root == null) {
+            return null;
+        }
+        Node best = null;
+        int bestDistance = maxDistance;
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            int radius = bestDistance;
+            // Beyond maxEdge + radius neither this node nor any child can be in range.
+            int d = distance(input, node.term, node.maxEdge + radius);
+            if (d < bestDistance || (d == bestDistance && (best == null || node.order < best.order))) {
+                best = node;
+                bestDistance = d;
+                radius = d;
+            }
+            for (int i = 0; i < node.children.length; i++) {
+                if (Math.abs(node.edges[i] - d) <= radius) {
+                    stack.add(node.children[i]);
+                }
+            }
+        }
+        return best == null ? null : best.command;
+    }
+
+    /**
+     * Levenshtein distance between {@code a} and {@code b}, or any value
+     * greater than {@code limit} once the distance is known to exceed it.
+     */
+    public synchronized int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        if (previousRow.length < b.length() + 1) {
+            previousRow = new int[b.length() + 1];
+            currentRow = new int[b.length() + 1];
+        }
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,305 @@
+package com.yourcompany.app;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.trees.J48;
+import weka.classifiers.trees.j48.BinC45Split;
+import weka.classifiers.trees.j48.C45Split;
+import weka.classifiers.trees.j48.ClassifierSplitModel;
+import weka.classifiers.trees.j48.ClassifierTree;
+import weka.classifiers.trees.j48.NoSplit;
+import weka.core.Capabilities;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A trained J48 tree flattened into primitive arrays. Nodes are laid out
+ * breadth first with the children of each split stored next to each other,
+ * so scoring a row is a loop over array indices instead of virtual calls
+ * through the {@code ClassifierTree} object graph. The class of every leaf is
+ * resolved at compile time.
+ * <p>
+ * Predictions and distributions are identical to the source tree, including
+ * rows with missing split values, which are spread over the branches with the
+ * same weights and in the same order as {@code ClassifierTree.getProbs}.
+ */
+public class CompiledJ48 extends AbstractClassifier {
+    private static final long serialVersionUID = 1L;
+
+    private static final int LEAF = -1;
+    private static final byte NUMERIC = 0;
+    private static final byte NOMINAL = 1;
+    private static final byte BINARY_NOMINAL = 2;
+
+    private int numClasses;
+    /** Split attribute of each node, or LEAF. */
+    private int[] attribute;
+    private byte[] splitType;
+    private double[] splitPoint;
+    /** First child of a split node, or first class probability of a leaf. */
+    private int[] offset;
+    private int[] numChildren;
+    /** Share of the parent's training weight, used when the parent's split value is missing. */
+    private double[] missingWeight;
+    /** Leaves standing in for empty branches, which are skipped when the split value is missing. */
+    private boolean[] empty;
+    private int[] leafClass;
+    private double[] probabilities;
+
+    /** Compiles a trained J48 model. Laplace-smoothed trees are not supported. */
+    public static CompiledJ48 compile(J48 model) throws Exception {
+        if (model.getUseLaplace()) {
+            throw new IllegalArgumentException("Compiling Laplace-smoothed J48 trees is not supported");
+        }
+        Field rootField = J48.class.getDeclaredField("m_root");
+        rootField.setAccessible(true);
+        ClassifierTree root = (ClassifierTree) rootField.get(model);
+        if (root == null) {
+            throw new IllegalStateException("The J48 model has not been built");
+        }
+        CompiledJ48 compiled = new CompiledJ48();
+        compiled.build(root);
+        return compiled;
+    }
+
+    @Override
+    public void buildClassifier(Instances data) throws Exception {
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+        CompiledJ48 compiled = compile(j48);
+        numClasses = compiled.numClasses;
+        attribute = compiled.attribute;
+        splitType = compiled.splitType;
+        splitPoint = compiled.splitPoint;
+        offset = compiled.offset;
+        numChildren = compiled.numChildren;
+        missingWeight = compiled.missingWeight;
+        empty = compiled.empty;
+        leafClass = compiled.leafClass;
+        probabilities = compiled.probabilities;
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return new J48().getCapabilities();
+    }
+
+    public int numNodes() {
+        return attribute.length;
+    }
+
+    /** Returns the predicted class index for a row of attribute values, with NaN for missing. */
+    public int classify(double[] row) {
+        int node = findLeaf(row);
+        if (node >= 0) {
+            return leafClass[node];
+        }
+        return maxIndex(accumulate(0, row, 1));
+    }
+
+    /** Returns the class distribution for a row of attribute values, with NaN for missing. */
+    public double[] distribution(double[] row) {
+        int node = findLeaf(row);
+        if (node >= 0) {
+            return Arrays.copyOfRange(probabilities, offset[node], offset[node] + numClasses);
+        }
+        return accumulate(0, row, 1);
+    }
+
+    @Override
+    public double classifyInstance(Instance instance) {
+        return classify(instance.toDoubleArray());
+    }
+
+    @Override
+    public double[] distributionForInstance(Instance instance) {
+        return distribution(instance.toDoubleArray());
+    }
+
+    @Override
+    public String toString() {
+        if (attribute == null) {
+            return "Compiled J48: no model built yet.";
+        }
+        int leaves = 0;
+        for (int a : attribute) {
+            if (a == LEAF) {
+                leaves++;
+            }
+        }
+        return "Compiled J48: " + attribute.length + " nodes, " + leaves + " leaves.";
+    }
+
+    /** Walks to the leaf for {@code row}, or returns -1 if a split value on the path is missing. */
+    private int findLeaf(double[] row) {
+        int node = 0;
+        int att;
+        while ((att = attribute[node]) != LEAF) {
+            double value = row[att];
+            if (Double.isNaN(value)) {
+                return -1;
+            }
+            node = offset[node] + branch(node, value);
+        }
+        return node;
+    }
+
+    private int branch(int node, double value) {
+        switch (splitType[node]) {
+            case NUMERIC:
+                return value <= splitPoint[node] ? 0 : 1;
+            case NOMINAL:
+                return (int) value;
+            default:
+                return (int) splitPoint[node] == (int) value ? 0 : 1;
+        }
+    }
+
+    /** Mirrors ClassifierTree.getProbs for every class at once. */
+    private double[] accumulate(int node, double[] row, double weight) {
+        double[] result = new double[numClasses];
+        if (attribute[node] == LEAF) {
+            for (int c = 0; c < numClasses; c++) {
+                result[c] = weight * probabilities[offset[node] + c];
+            }
+            return result;
+        }
+        double value = row[attribute[node]];
+        if (!Double.isNaN(value)) {
+            return accumulate(offset[node] + branch(node, value), row, weight);
+        }
+        for (int child = offset[node]; child < offset[node] + numChildren[node]; child++) {
+            if (!empty[child]) {
+                double[] childResult = accumulate(child, row, missingWeight[child] * weight);
+                for (int c = 0; c < numClasses; c++) {
+                    result[c] += childResult[c];
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Picks the class the same way ClassifierTree.classifyInstance does. */
+    private static int maxIndex(double[] distribution) {
+        double maxProb = -1;
+        int maxIndex = 0;
+        for (int c = 0; c < distribution.length; c++) {
+            if (Utils.gr(distribution[c], maxProb)) {
+                maxIndex = c;
+                maxProb = distribution[c];
+            }
+        }
+        return maxIndex;
+    }
+
+    /** A node waiting to be laid out: a subtree, or the empty branch of a split. */
+    private static final class Pending {
+        final ClassifierTree tree;
+        final ClassifierSplitModel parentSplit;
+        final int branch;
+
+        Pending(ClassifierTree tree, ClassifierSplitModel parentSplit, int branch) {
+            this.tree = tree;
+            this.parentSplit = parentSplit;
+            this.branch = branch;
+        }
+    }
+
+    private void build(ClassifierTree root) throws Exception {
+        Instances header = root.getTrainingData();
+        if (header == null) {
+            throw new IllegalArgumentException("The J48 model has no training header");
+        }
+        numClasses = root.getLocalModel().distribution().numClasses();
+        List<Pending> nodes = new ArrayList<>();
+        nodes.add(new Pending(root, null, -1));
+        List<Integer> firstChild = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Pending pending = nodes.get(i);
+            firstChild.add(nodes.size());
+            if (pending.tree != null && !pending.tree.isLeaf()) {
+                ClassifierSplitModel split = pending.tree.getLocalModel();
+                ClassifierTree[] sons = pending.tree.getSons();
+                for (int b = 0; b < sons.length; b++) {
+                    nodes.add(new Pending(isEmpty(sons[b]) ? null : sons[b], split, b));
+                }
+            }
+        }
+
+        int count = nodes.size();
+        attribute = new int[count];
+        splitType = new byte[count];
+        splitPoint = new double[count];
+        offset = new int[count];
+        numChildren = new int[count];
+        missingWeight = new double[count];
+        empty = new boolean[count];
+        leafClass = new int[count];
+        List<double[]> leafProbabilities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Pending pending = nodes.get(i);
+            if (pending.parentSplit != null) {
+                missingWeight[i] = pending.parentSplit.distribution().perBag(pending.branch)
+                        / pending.parentSplit.distribution().total();
+            }
+            empty[i] = pending.tree == null;
+            double[] probs = new double[numClasses];
+            if (pending.tree == null) {
+                for (int c = 0; c < numClasses; c++) {
+                    probs[c] = pending.parentSplit.classProb(c, null, pending.branch);
+                }
+            } else if (pending.tree.isLeaf()) {
+                if (!(pending.tree.getLocalModel() instanceof NoSplit)) {
+                    throw new IllegalArgumentException("Unsupported leaf model "
+                            + pending.tree.getLocalModel().getClass().getName());
+                }
+                for (int c = 0; c < numClasses; c++) {
+                    probs[c] = pending.tree.getLocalModel().distribution().prob(c);
+                }
+            } else {
+                ClassifierSplitModel split = pending.tree.getLocalModel();
+                int att;
+                boolean binary;
+                if (split instanceof C45Split) {
+                    att = ((C45Split) split).attIndex();
+                    splitPoint[i] = ((C45Split) split).splitPoint();
+                    binary = false;
+                } else if (split instanceof BinC45Split) {
+                    att = ((BinC45Split) split).attIndex();
+                    splitPoint[i] = ((BinC45Split) split).splitPoint();
+                    binary = true;
+                } else {
+                    throw new IllegalArgumentException("Unsupported split model " + split.getClass().getName());
+                }
+                attribute[i] = att;
+                if (header.attribute(att).isNominal()) {
+                    splitType[i] = binary ? BINARY_NOMINAL : NOMINAL;
+                } else {
+                    splitType[i] = NUMERIC;
+                }
+                offset[i] = firstChild.get(i);
+                numChildren[i] = pending.tree.getSons().length;
+                continue;
+            }
+            attribute[i] = LEAF;
+            offset[i] = leafProbabilities.size() * numClasses;
+            leafClass[i] = maxIndex(probs);
+            leafProbabilities.add(probs);
+        }
+        probabilities = new double[leafProbabilities.size() * numClasses];
+        for (int l = 0; l < leafProbabilities.size(); l++) {
+            System.arraycopy(leafProbabilities.get(l), 0, probabilities, l * numClasses, numClasses);
+        }
+    }
+
+    private static boolean isEmpty(ClassifierTree son) throws ReflectiveOperationException {
+        Field emptyField = ClassifierTree.class.getDeclaredField("m_isEmpty");
+        emptyField.setAccessible(true);
+        return emptyField.getBoolean(son);
+    }
+}
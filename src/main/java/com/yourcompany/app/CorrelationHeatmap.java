@@ -0,0 +1,84 @@
+package com.yourcompany.app;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.axis.SymbolAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.PaintScale;
+import org.jfree.chart.renderer.xy.XYBlockRenderer;
+import org.jfree.chart.title.PaintScaleLegend;
+import org.jfree.chart.ui.RectangleEdge;
+import org.jfree.data.xy.DefaultXYZDataset;
+
+import java.awt.Color;
+import java.awt.Paint;
+
+/**
+ * Heatmap of a correlation matrix: blue for -1, white for 0 and red for 1,
+ * with undefined correlations in grey.
+ */
+public final class CorrelationHeatmap {
+    private CorrelationHeatmap() {
+    }
+
+    public static JFreeChart createChart(String title, String[] names, double[][] matrix) {
+        int p = names.length;
+        double[][] series = new double[3][p * p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j < p; j++) {
+                series[0][i * p + j] = j;
+                series[1][i * p + j] = p - 1 - i;
+                series[2][i * p + j] = matrix[i][j];
+            }
+        }
+        DefaultXYZDataset dataset = new DefaultXYZDataset();
+        dataset.addSeries(title, series);
+
+        String[] reversed = new String[p];
+        for (int i = 0; i < p; i++) {
+            reversed[i] = names[p - 1 - i];
+        }
+        SymbolAxis xAxis = new SymbolAxis(null, names);
+        xAxis.setVerticalTickLabels(true);
+        SymbolAxis yAxis = new SymbolAxis(null, reversed);
+        XYBlockRenderer renderer = new XYBlockRenderer();
+        CorrelationScale scale = new CorrelationScale();
+        renderer.setPaintScale(scale);
+        XYPlot plot = new XYPlot(dataset, xAxis, yAxis, renderer);
+        plot.setBackgroundPaint(Color.LIGHT_GRAY);
+        plot.setDomainGridlinesVisible(false);
+        plot.setRangeGridlinesVisible(false);
+
+        JFreeChart chart = new JFreeChart(title, plot);
+        chart.removeLegend();
+        chart.setBackgroundPaint(Color.WHITE);
+        chart.getTitle().setPaint(Color.DARK_GRAY);
+        PaintScaleLegend legend = new PaintScaleLegend(scale, new NumberAxis());
+        legend.setPosition(RectangleEdge.RIGHT);
+        legend.setBackgroundPaint(Color.WHITE);
+        chart.addSubtitle(legend);
+        return chart;
+    }
+
+    private static final class CorrelationScale implements PaintScale {
+        @Override
+        public double getLowerBound() {
+            return -1;
+        }
+
+        @Override
+        public double getUpperBound() {
+            return 1;
+        }
+
+        @Override
+        public Paint getPaint(double value) {
+            if (Double.isNaN(value)) {
+                return Color.LIGHT_GRAY;
+            }
+            double v = Math.max(-1, Math.min(1, value));
+            int fade = (int) Math.round(255 * (1 - Math.abs(v)));
+            return v >= 0 ? new Color(255, fade, fade) : new Color(fade, fade, 255);
+        }
+    }
+}
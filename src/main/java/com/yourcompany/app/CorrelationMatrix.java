@@ -0,0 +1,376 @@
+package com.yourcompany.app;
+
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pearson and Spearman correlations and covariances between every pair of
+ * numeric attributes, computed together over the column arrays. The rows are
+ * split into ranges that run in parallel; each range is processed in blocks
+ * small enough for every column's slice to stay in cache while all pairs are
+ * summed over it, four columns at a time. Missing values are dropped pair by
+ * pair. Spearman correlations are Pearson correlations of the average ranks
+ * of each column's non-missing values.
+ */
+public final class CorrelationMatrix {
+    private static final int BLOCK_ROWS = 1024;
+    private static final int MIN_ROWS_PER_TASK = 16 * BLOCK_ROWS;
+
+    private CorrelationMatrix() {
+    }
+
+    public static final class Result {
+        public final int[] attributes;
+        public final String[] names;
+        public final double[][] pearson;
+        public final double[][] spearman;
+        public final double[][] covariance;
+        /** Rows where both columns have a value. */
+        public final long[][] counts;
+
+        Result(int[] attributes, String[] names, double[][] pearson, double[][] spearman, double[][] covariance,
+                long[][] counts) {
+            this.attributes = attributes;
+            this.names = names;
+            this.pearson = pearson;
+            this.spearman = spearman;
+            this.covariance = covariance;
+            this.counts = counts;
+        }
+    }
+
+    public static Result compute(Instances data) throws Exception {
+        List<Integer> numeric = new ArrayList<>();
+        for (int a = 0; a < data.numAttributes(); a++) {
+            if (data.attribute(a).isNumeric()) {
+                numeric.add(a);
+            }
+        }
+        int p = numeric.size();
+        int[] attributes = new int[p];
+        String[] names = new String[p];
+        double[][] columns = new double[p][];
+        double[] shifts = new double[p];
+        ColumnarDataset backing = ColumnarDataset.backing(data);
+        ColumnStatsEngine.ColumnStats[] stats = ColumnStatsEngine.getStats(data);
+        for (int i = 0; i < p; i++) {
+            attributes[i] = numeric.get(i);
+            names[i] = data.attribute(attributes[i]).name();
+            columns[i] = backing != null ? backing.numericColumn(attributes[i])
+                    : data.attributeToDoubleArray(attributes[i]);
+            shifts[i] = stats[attributes[i]].count > 0 ? stats[attributes[i]].mean : 0;
+        }
+
+        Sums values = sum(columns, shifts, data.numInstances());
+        double[][] covariance = new double[p][p];
+        double[][] pearson = values.correlations(covariance);
+
+        List<Callable<double[]>> rankTasks = new ArrayList<>();
+        for (double[] column : columns) {
+            rankTasks.add(() -> ranks(column));
+        }
+        double[][] ranks = ParallelTasks.invokeAll("Correlation", rankTasks).toArray(new double[0][]);
+        double[] rankShifts = new double[p];
+        for (int i = 0; i < p; i++) {
+            rankShifts[i] = (stats[attributes[i]].count + 1) / 2;
+        }
+        double[][] spearman = sum(ranks, rankShifts, data.numInstances()).correlations(null);
+
+        return new Result(attributes, names, pearson, spearman, covariance, values.n);
+    }
+
+    /**
+     * Average ranks, starting at 1, of the non-missing values of
+     * {@code column}; missing values stay missing.
+     */
+    static double[] ranks(double[] column) {
+        int n = column.length;
+        long[] keys = new long[n];
+        int[] rows = new int[n];
+        int count = 0;
+        for (int r = 0; r < n; r++) {
+            double v = column[r];
+            if (Double.isNaN(v)) {
+                continue;
+            }
+            // Order-preserving bits, with -0.0 folded into 0.0 so the two tie.
+            long bits = Double.doubleToLongBits(v + 0.0);
+            keys[count] = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+            rows[count++] = r;
+        }
+        radixSort(keys, rows, count);
+        double[] ranks = new double[n];
+        Arrays.fill(ranks, Double.NaN);
+        for (int first = 0; first < count;) {
+            int last = first;
+            while (last + 1 < count && keys[last + 1] == keys[first]) {
+                last++;
+            }
+            double rank = (first + last) / 2.0 + 1;
+            for (int k = first; k <= last; k++) {
+                ranks[rows[k]] = rank;
+            }
+            first = last + 1;
+        }
+        return ranks;
+    }
+
+    /** Sorts the first {@code count} keys, moving each row with its key, 11 bits per pass. */
+    private static void radixSort(long[] keys, int[] rows, int count) {
+        long[] keyBuffer = new long[count];
+        int[] rowBuffer = new int[count];
+        long[] fromKeys = keys;
+        int[] fromRows = rows;
+        int[] offsets = new int[1 << 11];
+        for (int shift = 0; shift < 64; shift += 11) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < count; i++) {
+                offsets[(int) (fromKeys[i] >>> shift) & 0x7FF]++;
+            }
+            int sum = 0;
+            boolean oneDigit = false;
+            for (int d = 0; d < offsets.length; d++) {
+                int c = offsets[d];
+                oneDigit |= c == count;
+                offsets[d] = sum;
+                sum += c;
+            }
+            if (oneDigit) {
+                continue;
+            }
+            for (int i = 0; i < count; i++) {
+                int position = offsets[(int) (fromKeys[i] >>> shift) & 0x7FF]++;
+                keyBuffer[position] = fromKeys[i];
+                rowBuffer[position] = fromRows[i];
+            }
+            long[] swapKeys = fromKeys;
+            fromKeys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swapRows = fromRows;
+            fromRows = rowBuffer;
+            rowBuffer = swapRows;
+        }
+        if (fromKeys != keys) {
+            System.arraycopy(fromKeys, 0, keys, 0, count);
+            System.arraycopy(fromRows, 0, rows, 0, count);
+        }
+    }
+
+    private static Sums sum(double[][] columns, double[] shifts, int numRows) throws Exception {
+        int p = columns.length;
+        boolean[] hasMissing = new boolean[p];
+        for (int i = 0; i < p; i++) {
+            for (double v : columns[i]) {
+                if (Double.isNaN(v)) {
+                    hasMissing[i] = true;
+                    break;
+                }
+            }
+        }
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        int tasksCount = (int) Math.max(1, Math.min(4L * parallelism, numRows / MIN_ROWS_PER_TASK));
+        List<Callable<Sums>> tasks = new ArrayList<>();
+        for (int t = 0; t < tasksCount; t++) {
+            int from = (int) ((long) numRows * t / tasksCount);
+            int to = (int) ((long) numRows * (t + 1) / tasksCount);
+            tasks.add(() -> {
+                Sums sums = new Sums(p);
+                double[][] block = new double[p][BLOCK_ROWS];
+                for (int start = from; start < to; start += BLOCK_ROWS) {
+                    int length = Math.min(BLOCK_ROWS, to - start);
+                    for (int i = 0; i < p; i++) {
+                        double[] column = columns[i];
+                        double[] shifted = block[i];
+                        double shift = shifts[i];
+                        for (int r = 0; r < length; r++) {
+                            shifted[r] = column[start + r] - shift;
+                        }
+                    }
+                    sums.add(block, length, hasMissing);
+                }
+                return sums;
+            });
+        }
+        Sums total = null;
+        for (Sums sums : ParallelTasks.invokeAll("Correlation", tasks)) {
+            total = total == null ? sums : total.merge(sums);
+        }
+        return total;
+    }
+
+    /**
+     * For each pair {@code (i, j)}, {@code i <= j}, the count of rows where
+     * both are present and, over those rows, the sums of the shifted values
+     * of each column, of their squares and of their products.
+     */
+    private static final class Sums {
+        private final int p;
+        final long[][] n;
+        private final double[][] sumI;
+        private final double[][] sumJ;
+        private final double[][] squaresI;
+        private final double[][] squaresJ;
+        private final double[][] products;
+
+        Sums(int p) {
+            this.p = p;
+            n = new long[p][p];
+            sumI = new double[p][p];
+            sumJ = new double[p][p];
+            squaresI = new double[p][p];
+            squaresJ = new double[p][p];
+            products = new double[p][p];
+        }
+
+        void add(double[][] block, int length, boolean[] hasMissing) {
+            for (int i = 0; i < p; i++) {
+                double[] a = block[i];
+                int j = i;
+                if (!hasMissing[i]) {
+                    for (; j + 3 < p && !hasMissing[j] && !hasMissing[j + 1] && !hasMissing[j + 2]
+                            && !hasMissing[j + 3]; j += 4) {
+                        double[] b0 = block[j];
+                        double[] b1 = block[j + 1];
+                        double[] b2 = block[j + 2];
+                        double[] b3 = block[j + 3];
+                        double s0 = 0;
+                        double s1 = 0;
+                        double s2 = 0;
+                        double s3 = 0;
+                        for (int r = 0; r < length; r++) {
+                            double v = a[r];
+                            s0 += v * b0[r];
+                            s1 += v * b1[r];
+                            s2 += v * b2[r];
+                            s3 += v * b3[r];
+                        }
+                        products[i][j] += s0;
+                        products[i][j + 1] += s1;
+                        products[i][j + 2] += s2;
+                        products[i][j + 3] += s3;
+                        for (int k = j; k < j + 4; k++) {
+                            n[i][k] += length;
+                        }
+                    }
+                }
+                for (; j < p; j++) {
+                    if (!hasMissing[i] && !hasMissing[j]) {
+                        double[] b = block[j];
+                        double s = 0;
+                        for (int r = 0; r < length; r++) {
+                            s += a[r] * b[r];
+                        }
+                        products[i][j] += s;
+                        n[i][j] += length;
+                    } else {
+                        addWithMissing(i, j, a, block[j], length);
+                    }
+                }
+            }
+            // Columns without missing values share their sums across all such pairs.
+            for (int i = 0; i < p; i++) {
+                if (hasMissing[i]) {
+                    continue;
+                }
+                double s = 0;
+                double q = 0;
+                for (int r = 0; r < length; r++) {
+                    double v = block[i][r];
+                    s += v;
+                    q += v * v;
+                }
+                for (int j = 0; j < p; j++) {
+                    if (hasMissing[j]) {
+                        continue;
+                    }
+                    if (i <= j) {
+                        sumI[i][j] += s;
+                        squaresI[i][j] += q;
+                    }
+                    if (j <= i) {
+                        sumJ[j][i] += s;
+                        squaresJ[j][i] += q;
+                    }
+                }
+            }
+        }
+
+        private void addWithMissing(int i, int j, double[] a, double[] b, int length) {
+            long count = 0;
+            double si = 0;
+            double sj = 0;
+            double qi = 0;
+            double qj = 0;
+            double s = 0;
+            for (int r = 0; r < length; r++) {
+                double x = a[r];
+                double y = b[r];
+                if (Double.isNaN(x) || Double.isNaN(y)) {
+                    continue;
+                }
+                count++;
+                si += x;
+                sj += y;
+                qi += x * x;
+                qj += y * y;
+                s += x * y;
+            }
+            n[i][j] += count;
+            sumI[i][j] += si;
+            sumJ[i][j] += sj;
+            squaresI[i][j] += qi;
+            squaresJ[i][j] += qj;
+            products[i][j] += s;
+        }
+
+        Sums merge(Sums other) {
+            for (int i = 0; i < p; i++) {
+                for (int j = i; j < p; j++) {
+                    n[i][j] += other.n[i][j];
+                    sumI[i][j] += other.sumI[i][j];
+                    sumJ[i][j] += other.sumJ[i][j];
+                    squaresI[i][j] += other.squaresI[i][j];
+                    squaresJ[i][j] += other.squaresJ[i][j];
+                    products[i][j] += other.products[i][j];
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Fills both triangles of {@code n}, writes the covariances into
+         * {@code covariance} if it is not null, and returns the correlations.
+         */
+        double[][] correlations(double[][] covariance) {
+            double[][] correlations = new double[p][p];
+            for (int i = 0; i < p; i++) {
+                for (int j = i; j < p; j++) {
+                    long count = n[i][j];
+                    double cov = Double.NaN;
+                    double r = Double.NaN;
+                    if (count > 1) {
+                        cov = (products[i][j] - sumI[i][j] * sumJ[i][j] / count) / (count - 1);
+                        double varI = (squaresI[i][j] - sumI[i][j] * sumI[i][j] / count) / (count - 1);
+                        double varJ = (squaresJ[i][j] - sumJ[i][j] * sumJ[i][j] / count) / (count - 1);
+                        if (varI > 0 && varJ > 0) {
+                            r = Math.max(-1, Math.min(1, cov / Math.sqrt(varI * varJ)));
+                        }
+                    }
+                    correlations[i][j] = r;
+                    correlations[j][i] = r;
+                    n[j][i] = count;
+                    if (covariance != null) {
+                        covariance[i][j] = cov;
+                        covariance[j][i] = cov;
+                    }
+                }
+            }
+            return correlations;
+        }
+    }
+}
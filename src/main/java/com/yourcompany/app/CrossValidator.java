@@ -0,0 +1,87 @@
+package com.yourcompany.app;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.AggregateableEvaluation;
+import weka.classifiers.Classifier;
+import weka.classifiers.Evaluation;
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * k-fold cross-validation with the folds trained and evaluated concurrently.
+ * The folds are drawn exactly as {@code Evaluation.crossValidateModel} draws
+ * them, each is scored by its own copy of the classifier into its own
+ * {@link Evaluation}, and the per-fold evaluations are merged into one, so
+ * the summary, confusion matrix and class details match the sequential run.
+ */
+public final class CrossValidator {
+    public static final int DEFAULT_FOLDS = 10;
+
+    private CrossValidator() {
+    }
+
+    /** Train/test splits of a dataset, shared by every classifier evaluated on them. */
+    public static final class Folds {
+        private final Instances data;
+        private final Instances[] train;
+        private final Instances[] test;
+
+        public Folds(Instances data, int numFolds, long seed) {
+            if (numFolds < 2 || numFolds > data.numInstances()) {
+                throw new IllegalArgumentException("Cannot run " + numFolds + "-fold cross-validation on "
+                        + data.numInstances() + " instances");
+            }
+            this.data = new Instances(data);
+            Random random = new Random(seed);
+            this.data.randomize(random);
+            if (this.data.classAttribute().isNominal()) {
+                this.data.stratify(numFolds);
+            }
+            // Split up front, in fold order, so the shared Random is consumed as in the sequential run.
+            train = new Instances[numFolds];
+            test = new Instances[numFolds];
+            for (int fold = 0; fold < numFolds; fold++) {
+                train[fold] = this.data.trainCV(numFolds, fold, random);
+                test[fold] = this.data.testCV(numFolds, fold);
+            }
+        }
+
+        public int size() {
+            return train.length;
+        }
+
+        /** Trains a copy of {@code template} on the fold's training part and scores its test part. */
+        public Evaluation evaluate(Classifier template, int fold) throws Exception {
+            Evaluation evaluation = new Evaluation(data);
+            evaluation.setPriors(train[fold]);
+            Classifier classifier = AbstractClassifier.makeCopy(template);
+            classifier.buildClassifier(train[fold]);
+            evaluation.evaluateModel(classifier, test[fold]);
+            return evaluation;
+        }
+    }
+
+    public static Evaluation crossValidate(Classifier template, Instances data, int numFolds, long seed)
+            throws Exception {
+        Folds folds = new Folds(data, numFolds, seed);
+        List<Callable<Evaluation>> tasks = new ArrayList<>();
+        for (int fold = 0; fold < numFolds; fold++) {
+            int index = fold;
+            tasks.add(() -> folds.evaluate(template, index));
+        }
+        return merge(ParallelTasks.invokeAll("Cross-validation", tasks));
+    }
+
+    /** Combines per-fold evaluations into one covering all of their test instances. */
+    public static Evaluation merge(List<Evaluation> evaluations) throws Exception {
+        AggregateableEvaluation merged = new AggregateableEvaluation(evaluations.get(0));
+        for (Evaluation evaluation : evaluations) {
+            merged.aggregate(evaluation);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,74 @@
+package com.yourcompany.app;
+
+import java.io.Serializable;
+
+/**
+ * A HyperLogLog estimate of the number of distinct numbers in a stream, in
+ * 4 KB whatever the stream's length, with a standard error of about 1.6%.
+ * Each value's hash picks one of 4096 registers, which keeps the longest run
+ * of leading zeros seen in the rest of the hash. Small counts use linear
+ * counting over the empty registers and are close to exact. Sketches merge
+ * by taking the larger of each pair of registers.
+ */
+public final class DistinctCountSketch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    /** Adds a value; NaN is ignored and -0.0 counts as 0.0. */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        long hash = mix(Double.doubleToLongBits(value + 0.0));
+        int register = (int) (hash >>> (64 - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+    }
+
+    /** Adds the values of {@code other}, which is left unchanged. */
+    public DistinctCountSketch merge(DistinctCountSketch other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public DistinctCountSketch copy() {
+        return new DistinctCountSketch().merge(this);
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /** The MurmurHash3 finalizer, so nearby values land in unrelated registers. */
+    private static long mix(long bits) {
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return bits;
+    }
+}
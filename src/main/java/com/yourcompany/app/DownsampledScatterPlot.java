@@ -0,0 +1,170 @@
+package com.yourcompany.app;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.Range;
+import org.jfree.data.xy.DefaultXYDataset;
+import weka.core.Instances;
+
+import javax.swing.Timer;
+import java.awt.Color;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Scatter plot for datasets too large to draw point by point. The two columns
+ * are copied once into primitive arrays; what is plotted is a grid sample
+ * with at most one point per cell of a couple of pixels over the visible
+ * range, which looks the same as drawing every point. Zooming or panning
+ * re-samples the new range at full detail, and each sample replaces the
+ * series in one bulk update while chart notifications are off.
+ */
+public class DownsampledScatterPlot {
+    private static final int CELL_PIXELS = 2;
+    private static final int RESAMPLE_DELAY_MS = 100;
+    private static final String SERIES_KEY = "Points";
+
+    private final double[] xs;
+    private final double[] ys;
+    private final Range fullX;
+    private final Range fullY;
+    private final String title;
+    private final DefaultXYDataset dataset = new DefaultXYDataset();
+    private final JFreeChart chart;
+    private final XYPlot plot;
+    private final ChartPanel chartPanel;
+    private final Timer resampleTimer;
+    private int sampledCount;
+
+    public DownsampledScatterPlot(Instances data, int xIndex, int yIndex, String title) {
+        this.title = title;
+        double[] x = ColumnarDataset.attributeToDoubleArray(data, xIndex);
+        double[] y = ColumnarDataset.attributeToDoubleArray(data, yIndex);
+        int count = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                x[count] = x[i];
+                y[count] = y[i];
+                count++;
+            }
+        }
+        xs = Arrays.copyOf(x, count);
+        ys = Arrays.copyOf(y, count);
+        fullX = paddedRange(xs);
+        fullY = paddedRange(ys);
+
+        chart = ChartFactory.createScatterPlot(title, data.attribute(xIndex).name(), data.attribute(yIndex).name(),
+                dataset);
+        chart.setBackgroundPaint(Color.WHITE);
+        chart.getTitle().setPaint(Color.DARK_GRAY);
+        chart.removeLegend();
+        plot = (XYPlot) chart.getPlot();
+        plot.getDomainAxis().setRange(fullX);
+        plot.getRangeAxis().setRange(fullY);
+
+        chartPanel = new ChartPanel(chart) {
+            @Override
+            public void restoreAutoBounds() {
+                // The dataset only holds the current sample, so auto range would stay zoomed in.
+                plot.getDomainAxis().setRange(fullX);
+                plot.getRangeAxis().setRange(fullY);
+            }
+        };
+        chartPanel.setMouseWheelEnabled(true);
+
+        resampleTimer = new Timer(RESAMPLE_DELAY_MS, e -> resample());
+        resampleTimer.setRepeats(false);
+        resample();
+        plot.getDomainAxis().addChangeListener(e -> resampleTimer.restart());
+        plot.getRangeAxis().addChangeListener(e -> resampleTimer.restart());
+        chartPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                resampleTimer.restart();
+            }
+        });
+    }
+
+    public ChartPanel getChartPanel() {
+        return chartPanel;
+    }
+
+    public JFreeChart getChart() {
+        return chart;
+    }
+
+    /** Number of points currently drawn. */
+    public int sampledCount() {
+        return sampledCount;
+    }
+
+    private void resample() {
+        Rectangle2D area = chartPanel.getScreenDataArea();
+        int width = area.getWidth() > 0 ? (int) area.getWidth() : ChartPanel.DEFAULT_WIDTH;
+        int height = area.getHeight() > 0 ? (int) area.getHeight() : ChartPanel.DEFAULT_HEIGHT;
+        double[][] sample = sample(xs, ys, plot.getDomainAxis().getRange(), plot.getRangeAxis().getRange(),
+                Math.max(1, width / CELL_PIXELS), Math.max(1, height / CELL_PIXELS));
+        sampledCount = sample[0].length;
+        chart.setNotify(false);
+        dataset.addSeries(SERIES_KEY, sample);
+        chart.setTitle(sampledCount < xs.length
+                ? title + " (" + sampledCount + " of " + xs.length + " points)"
+                : title);
+        chart.getTitle().setPaint(Color.DARK_GRAY);
+        chart.setNotify(true);
+    }
+
+    /**
+     * Keeps the first point that falls into each cell of a {@code columns} by
+     * {@code rows} grid over the given ranges; points outside are dropped.
+     * Returns the sample as {@code {xs, ys}}.
+     */
+    static double[][] sample(double[] xs, double[] ys, Range xRange, Range yRange, int columns, int rows) {
+        boolean[] taken = new boolean[columns * rows];
+        double xMin = xRange.getLowerBound();
+        double xMax = xRange.getUpperBound();
+        double yMin = yRange.getLowerBound();
+        double yMax = yRange.getUpperBound();
+        double xScale = columns / Math.max(xRange.getLength(), Double.MIN_NORMAL);
+        double yScale = rows / Math.max(yRange.getLength(), Double.MIN_NORMAL);
+        int capacity = Math.min(xs.length, taken.length);
+        double[] sampleX = new double[capacity];
+        double[] sampleY = new double[capacity];
+        int count = 0;
+        for (int i = 0; i < xs.length && count < capacity; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            if (x < xMin || x > xMax || y < yMin || y > yMax) {
+                continue;
+            }
+            int column = Math.min((int) ((x - xMin) * xScale), columns - 1);
+            int row = Math.min((int) ((y - yMin) * yScale), rows - 1);
+            int cell = row * columns + column;
+            if (!taken[cell]) {
+                taken[cell] = true;
+                sampleX[count] = x;
+                sampleY[count] = y;
+                count++;
+            }
+        }
+        return new double[][] { Arrays.copyOf(sampleX, count), Arrays.copyOf(sampleY, count) };
+    }
+
+    private static Range paddedRange(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (values.length == 0) {
+            return new Range(0, 1);
+        }
+        double pad = max > min ? (max - min) * 0.05 : 1;
+        return new Range(min - pad, max + pad);
+    }
+}
@@ -0,0 +1,80 @@
+package com.yourcompany.app;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.DefaultIntervalXYDataset;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+
+/**
+ * Chart of a {@link StreamingHistogram} with a bin count the user can change.
+ * Re-binning reads the histogram's fine bins, never the data.
+ */
+public class HistogramPanel extends JPanel {
+    private static final int MAX_BINS = 1000;
+
+    private final StreamingHistogram histogram;
+    private final DefaultIntervalXYDataset dataset = new DefaultIntervalXYDataset();
+
+    public HistogramPanel(StreamingHistogram histogram, String attributeName) {
+        super(new BorderLayout());
+        this.histogram = histogram;
+
+        JFreeChart chart = createChart(attributeName, dataset);
+        int suggested = histogram.suggestedBins();
+        JSpinner binSpinner = new JSpinner(new SpinnerNumberModel(suggested, 1, MAX_BINS, 1));
+        binSpinner.addChangeListener(e -> showBins((Integer) binSpinner.getValue()));
+        JButton autoButton = new JButton("Auto");
+        autoButton.addActionListener(e -> binSpinner.setValue(suggested));
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.setBackground(Color.WHITE);
+        controls.add(new JLabel("Bins:"));
+        controls.add(binSpinner);
+        controls.add(autoButton);
+        controls.add(new JLabel(histogram.count() + " values"
+                + (histogram.skipped() > 0 ? ", " + histogram.skipped() + " missing" : "")));
+
+        add(controls, BorderLayout.NORTH);
+        add(new ChartPanel(chart), BorderLayout.CENTER);
+        showBins(suggested);
+    }
+
+    private void showBins(int numBins) {
+        fill(dataset, histogram, numBins);
+    }
+
+    static JFreeChart createChart(String attributeName, DefaultIntervalXYDataset dataset) {
+        JFreeChart chart = ChartFactory.createHistogram("Histogram of " + attributeName, "Values", "Frequency",
+                dataset);
+        chart.setBackgroundPaint(Color.WHITE);
+        chart.getTitle().setPaint(Color.DARK_GRAY);
+        XYPlot plot = (XYPlot) chart.getPlot();
+        plot.setDomainGridlinePaint(Color.DARK_GRAY);
+        plot.setRangeGridlinePaint(Color.DARK_GRAY);
+        return chart;
+    }
+
+    /** Replaces the series in {@code dataset} with {@code numBins} bins of {@code histogram}. */
+    static void fill(DefaultIntervalXYDataset dataset, StreamingHistogram histogram, int numBins) {
+        StreamingHistogram.Bins bins = histogram.bins(numBins);
+        double[][] series = new double[6][numBins];
+        for (int i = 0; i < numBins; i++) {
+            series[0][i] = (bins.edges[i] + bins.edges[i + 1]) / 2;
+            series[1][i] = bins.edges[i];
+            series[2][i] = bins.edges[i + 1];
+            series[3][i] = bins.counts[i];
+            series[4][i] = bins.counts[i];
+            series[5][i] = bins.counts[i];
+        }
+        dataset.addSeries("Histogram", series);
+    }
+}
@@ -0,0 +1,249 @@
+package com.yourcompany.app;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.UpdateableClassifier;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps a classifier current as rows are appended to its training CSV. It
+ * remembers the byte offset and count of the rows already used, so each
+ * {@link #refresh()} reads only the complete rows written since; a row still
+ * being written is left for the next refresh.
+ * <p>
+ * An {@link UpdateableClassifier} such as {@code HoeffdingTree} or
+ * {@code NaiveBayesUpdateable} is updated with just the new rows. Any other
+ * classifier, J48 included, is retrained on a sliding window of the most
+ * recent rows of the file. When the training data is only a sample of the
+ * file, as for a streamed load, the window is read from the file's tail.
+ * Either way the work happens on a copy, and {@link #model()} keeps
+ * returning the previous model until the new one replaces it in a single
+ * volatile write, so callers can keep predicting during a refresh.
+ * <p>
+ * If the file shrinks, its header changes or the bytes just before the
+ * offset no longer match a checksum taken when they were read, it is
+ * treated as rewritten and the model is retrained from the whole file.
+ * Checking the last {@value #FINGERPRINT_BYTES} bytes of the consumed
+ * prefix, rather than all of it, keeps a refresh proportional to the rows
+ * appended; a rewrite almost always changes them.
+ */
+public class IncrementalTrainer {
+    public static final int DEFAULT_WINDOW_ROWS = 1_000_000;
+    static final int FINGERPRINT_BYTES = 64 * 1024;
+
+    private final File file;
+    private final Instances header;
+    private final int windowRows;
+    private final boolean updateable;
+    private final long dataStart;
+    private final byte[] headerLine;
+    private Instances window;
+    private long offset;
+    private long fingerprint;
+    private long rows;
+    private volatile Classifier model;
+
+    /**
+     * @param data       the rows {@code model} was trained on: all of the
+     *                   first {@code rowsInFile} rows, or a sample of them
+     * @param model      the current model, trained on {@code data}
+     * @param rowsInFile how many data rows of {@code file} are already
+     *                   reflected in {@code model}; reading resumes after them
+     */
+    public IncrementalTrainer(File file, Instances data, Classifier model, long rowsInFile, int windowRows)
+            throws IOException {
+        this.file = file;
+        this.header = new Instances(data, 0);
+        this.windowRows = Math.max(1, windowRows);
+        this.updateable = model instanceof UpdateableClassifier;
+        this.model = model;
+        this.headerLine = readHeaderLine(file);
+        this.dataStart = headerLine.length;
+        this.offset = offsetAfterRows(rowsInFile);
+        this.fingerprint = fingerprint(offset);
+        this.rows = rowsInFile;
+        if (!updateable) {
+            if (data.numInstances() >= rowsInFile) {
+                int keep = Math.min(data.numInstances(), this.windowRows);
+                window = new Instances(data, data.numInstances() - keep, keep);
+            } else {
+                window = readRows(offsetAfterRows(rowsInFile - Math.min(rowsInFile, this.windowRows)), offset);
+            }
+        }
+    }
+
+    public Classifier model() {
+        return model;
+    }
+
+    /** Data rows read from the file so far. */
+    public synchronized long rows() {
+        return rows;
+    }
+
+    /** Byte offset just past the last row read. */
+    public synchronized long offset() {
+        return offset;
+    }
+
+    /**
+     * Folds in the rows appended since the last call and swaps in the
+     * resulting model. Returns the number of new rows, 0 if there were none.
+     */
+    public synchronized long refresh() throws Exception {
+        boolean rewritten = file.length() < offset || !Arrays.equals(readHeaderLine(file), headerLine)
+                || fingerprint(offset) != fingerprint;
+        long start = rewritten ? dataStart : offset;
+        long end = lastLineEnd(start);
+        if (end <= start) {
+            return 0;
+        }
+
+        Classifier next = AbstractClassifier.makeCopy(model);
+        if (updateable && rewritten) {
+            next.buildClassifier(header);
+        }
+        long added = 0;
+        Instances nextWindow = updateable ? null : new Instances(rewritten ? header : window);
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, header, start, end)) {
+            Instances batch;
+            while ((batch = reader.nextBatch(StreamingCsvReader.DEFAULT_BATCH_SIZE)) != null) {
+                for (Instance instance : batch) {
+                    if (updateable) {
+                        ((UpdateableClassifier) next).updateClassifier(instance);
+                    } else {
+                        nextWindow.add(instance);
+                    }
+                }
+                added += batch.numInstances();
+                if (nextWindow != null && nextWindow.numInstances() > 2 * windowRows) {
+                    nextWindow = trim(nextWindow);
+                }
+            }
+        }
+        if (!updateable) {
+            nextWindow = trim(nextWindow);
+            next.buildClassifier(nextWindow);
+            window = nextWindow;
+        }
+        model = next;
+        offset = end;
+        fingerprint = fingerprint(end);
+        rows = rewritten ? added : rows + added;
+        return added;
+    }
+
+    private Instances readRows(long start, long end) throws IOException {
+        Instances rows = new Instances(header, 0);
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, header, start, end)) {
+            Instances batch;
+            while ((batch = reader.nextBatch(StreamingCsvReader.DEFAULT_BATCH_SIZE)) != null) {
+                rows.addAll(batch);
+            }
+        }
+        return rows;
+    }
+
+    /** CRC-32 of the last {@link #FINGERPRINT_BYTES} bytes before {@code end}. */
+    private long fingerprint(long end) throws IOException {
+        long start = Math.max(0, end - FINGERPRINT_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+                // Fill the block.
+            }
+        }
+        CRC32 crc = new CRC32();
+        buffer.flip();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    private Instances trim(Instances data) {
+        if (data.numInstances() <= windowRows) {
+            return data;
+        }
+        return new Instances(data, data.numInstances() - windowRows, windowRows);
+    }
+
+    /** Position just after the last line break at or after {@code from}, or {@code from} if there is none. */
+    private long lastLineEnd(long from) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long end = channel.size();
+            while (end > from) {
+                long blockStart = Math.max(from, end - buffer.capacity());
+                buffer.clear().limit((int) (end - blockStart));
+                while (buffer.hasRemaining() && channel.read(buffer, blockStart + buffer.position()) >= 0) {
+                    // Fill the block.
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        return blockStart + i + 1;
+                    }
+                }
+                end = blockStart;
+            }
+            return from;
+        }
+    }
+
+    /** Position just after the {@code count}-th non-empty data row, counted the way the CSV readers do. */
+    private long offsetAfterRows(long count) throws IOException {
+        long position = dataStart;
+        if (count <= 0) {
+            return position;
+        }
+        long seen = 0;
+        boolean content = false;
+        byte[] buffer = new byte[64 * 1024];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                InputStream in = Channels.newInputStream(channel.position(dataStart))) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    if (b == '\n') {
+                        if (content && ++seen == count) {
+                            return position + i + 1;
+                        }
+                        content = false;
+                    } else if (b != '\r') {
+                        content = true;
+                    }
+                }
+                position += n;
+            }
+        }
+        return position;
+    }
+
+    /** The header line including its line break. */
+    private static byte[] readHeaderLine(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) >= 0) {
+                line.write(b);
+                if (b == '\n') {
+                    break;
+                }
+            }
+            return line.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.yourcompany.app;
+
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Searches J48's confidence factor (-C), minimum leaf size (-M), pruning
+ * (-U) and binary splits (-B) by cross-validation. Every candidate is scored
+ * on the same folds, with all (candidate, fold) pairs running concurrently.
+ * The search is raced: after the first few folds, candidates whose accuracy
+ * is clearly below the leader's are dropped and only the rest finish.
+ */
+public final class J48Tuner {
+    public static final int RACE_FOLDS = 3;
+    /** A candidate is dropped when it trails the leader by more than this many standard errors. */
+    private static final double CUTOFF_STANDARD_ERRORS = 2;
+    private static final String[] CONFIDENCE_FACTORS = { "0.05", "0.1", "0.15", "0.2", "0.25", "0.35", "0.5" };
+    private static final int[] MIN_LEAF_SIZES = { 1, 2, 5, 10, 20 };
+    private static final int MAX_RANDOM_LEAF_SIZE = 50;
+
+    private J48Tuner() {
+    }
+
+    public static final class Result {
+        public final String[] options;
+        public final Evaluation evaluation;
+        public final int folds;
+        public final boolean cut;
+
+        Result(String[] options, Evaluation evaluation, int folds, boolean cut) {
+            this.options = options;
+            this.evaluation = evaluation;
+            this.folds = folds;
+            this.cut = cut;
+        }
+
+        public double accuracy() {
+            return evaluation.pctCorrect();
+        }
+
+        public String describe() {
+            return Utils.joinOptions(options);
+        }
+    }
+
+    /** Every combination of the pruned grid, plus the unpruned trees. */
+    public static List<String[]> grid() {
+        List<String[]> candidates = new ArrayList<>();
+        for (String confidence : CONFIDENCE_FACTORS) {
+            for (int minLeaf : MIN_LEAF_SIZES) {
+                candidates.add(options(false, confidence, minLeaf, false));
+                candidates.add(options(false, confidence, minLeaf, true));
+            }
+        }
+        for (int minLeaf : MIN_LEAF_SIZES) {
+            candidates.add(options(true, null, minLeaf, false));
+            candidates.add(options(true, null, minLeaf, true));
+        }
+        return candidates;
+    }
+
+    /**
+     * Up to {@code count} distinct candidates drawn at random: the confidence
+     * factor uniformly from (0, 0.5], the minimum leaf size log-uniformly
+     * from 1 to 50, and one in five trees unpruned.
+     */
+    public static List<String[]> random(int count, long seed) {
+        Random random = new Random(seed);
+        Set<String> seen = new LinkedHashSet<>();
+        List<String[]> candidates = new ArrayList<>();
+        for (int attempt = 0; attempt < count * 10 && candidates.size() < count; attempt++) {
+            boolean unpruned = random.nextInt(5) == 0;
+            String confidence = String.format(Locale.ROOT, "%.3f", 0.01 + random.nextDouble() * 0.49);
+            int minLeaf = (int) Math.round(Math.exp(random.nextDouble() * Math.log(MAX_RANDOM_LEAF_SIZE)));
+            String[] options = options(unpruned, confidence, minLeaf, random.nextBoolean());
+            if (seen.add(Utils.joinOptions(options))) {
+                candidates.add(options);
+            }
+        }
+        return candidates;
+    }
+
+    private static String[] options(boolean unpruned, String confidence, int minLeaf, boolean binarySplits) {
+        List<String> options = new ArrayList<>();
+        if (unpruned) {
+            options.add("-U");
+        } else {
+            options.add("-C");
+            options.add(confidence);
+        }
+        options.add("-M");
+        options.add(String.valueOf(minLeaf));
+        if (binarySplits) {
+            options.add("-B");
+        }
+        return options.toArray(new String[0]);
+    }
+
+    /**
+     * Cross-validates every candidate and returns the results best first:
+     * candidates that ran all folds ranked by accuracy, then the ones that
+     * were cut, ranked by their accuracy on the folds they ran.
+     */
+    public static List<Result> search(Instances data, List<String[]> candidates, int numFolds, long seed)
+            throws Exception {
+        CrossValidator.Folds folds = new CrossValidator.Folds(data, numFolds, seed);
+        List<J48> templates = new ArrayList<>();
+        for (String[] options : candidates) {
+            J48 template = new J48();
+            template.setOptions(options.clone());
+            templates.add(template);
+        }
+        List<List<Evaluation>> evaluations = new ArrayList<>();
+        for (int c = 0; c < candidates.size(); c++) {
+            evaluations.add(new ArrayList<>());
+        }
+
+        int raceFolds = Math.min(RACE_FOLDS, numFolds);
+        List<Integer> all = new ArrayList<>();
+        for (int c = 0; c < candidates.size(); c++) {
+            all.add(c);
+        }
+        runFolds(folds, templates, evaluations, all, 0, raceFolds);
+        List<Evaluation> raced = new ArrayList<>();
+        for (List<Evaluation> perFold : evaluations) {
+            raced.add(CrossValidator.merge(perFold));
+        }
+        List<Integer> survivors = survivors(raced);
+        runFolds(folds, templates, evaluations, survivors, raceFolds, numFolds);
+
+        List<Result> results = new ArrayList<>();
+        for (int c = 0; c < candidates.size(); c++) {
+            boolean survived = survivors.contains(c);
+            results.add(new Result(candidates.get(c),
+                    survived ? CrossValidator.merge(evaluations.get(c)) : raced.get(c),
+                    survived ? numFolds : raceFolds, !survived));
+        }
+        results.sort(Comparator.comparing((Result r) -> r.cut).thenComparing(Result::accuracy,
+                Comparator.reverseOrder()));
+        return results;
+    }
+
+    /** Trains J48 with the options of {@code result} on all of {@code data}. */
+    public static J48 train(Result result, Instances data) throws Exception {
+        J48 j48 = new J48();
+        j48.setOptions(result.options.clone());
+        j48.buildClassifier(data);
+        return j48;
+    }
+
+    private static void runFolds(CrossValidator.Folds folds, List<J48> templates, List<List<Evaluation>> evaluations,
+            List<Integer> candidates, int fromFold, int toFold) throws Exception {
+        List<Callable<Evaluation>> tasks = new ArrayList<>();
+        for (int c : candidates) {
+            for (int fold = fromFold; fold < toFold; fold++) {
+                int index = fold;
+                tasks.add(() -> folds.evaluate(templates.get(c), index));
+            }
+        }
+        List<Evaluation> results = ParallelTasks.invokeAll("Cross-validation", tasks);
+        int next = 0;
+        for (int c : candidates) {
+            for (int fold = fromFold; fold < toFold; fold++) {
+                evaluations.get(c).add(results.get(next++));
+            }
+        }
+    }
+
+    /**
+     * Indices of the candidates whose accuracy is within the cutoff of the
+     * leader's, using the binomial standard error of each accuracy.
+     */
+    private static List<Integer> survivors(List<Evaluation> raced) {
+        int leader = 0;
+        for (int c = 1; c < raced.size(); c++) {
+            if (raced.get(c).pctCorrect() > raced.get(leader).pctCorrect()) {
+                leader = c;
+            }
+        }
+        double best = raced.get(leader).pctCorrect() / 100;
+        double bestVariance = variance(raced.get(leader));
+        List<Integer> survivors = new ArrayList<>();
+        for (int c = 0; c < raced.size(); c++) {
+            double accuracy = raced.get(c).pctCorrect() / 100;
+            double margin = CUTOFF_STANDARD_ERRORS * Math.sqrt(bestVariance + variance(raced.get(c)));
+            if (best - accuracy <= margin) {
+                survivors.add(c);
+            }
+        }
+        return survivors;
+    }
+
+    private static double variance(Evaluation evaluation) {
+        double accuracy = evaluation.pctCorrect() / 100;
+        return accuracy * (1 - accuracy) / Math.max(1, evaluation.numInstances());
+    }
+}
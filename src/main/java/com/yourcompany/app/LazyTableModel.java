@@ -0,0 +1,135 @@
+package com.yourcompany.app;
+
+import weka.core.Attribute;
+import weka.core.Instances;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Table model that formats each cell on demand from the data behind the
+ * table instead of from a prebuilt {@code String[][]}. A table over it only
+ * formats the cells it paints, so opening a result with many thousands of
+ * rows or columns costs no more than opening a small one. Formatted cells are
+ * kept in a few recently used pages of rows so scrolling back is cheap.
+ */
+public class LazyTableModel extends AbstractTableModel {
+    private static final int PAGE_ROWS = 128;
+    private static final int MAX_PAGES = 16;
+
+    /** Produces the value of one cell; called once per cell while its page is cached. */
+    @FunctionalInterface
+    public interface CellSource {
+        Object valueAt(int row, int column);
+    }
+
+    private final String[] columnNames;
+    private final int rowCount;
+    private final CellSource source;
+    private final Map<Integer, Object[][]> pages = new LinkedHashMap<Integer, Object[][]>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    public LazyTableModel(String[] columnNames, int rowCount, CellSource source) {
+        this.columnNames = columnNames;
+        this.rowCount = rowCount;
+        this.source = source;
+    }
+
+    public static LazyTableModel of(String[][] rows, String[] columnNames) {
+        return new LazyTableModel(columnNames, rows.length, (row, column) -> rows[row][column]);
+    }
+
+    /** The rows of {@code data}, with nominal values shown by label. */
+    public static LazyTableModel forInstances(Instances data) {
+        String[] columnNames = new String[data.numAttributes() + 1];
+        columnNames[0] = "#";
+        for (int a = 0; a < data.numAttributes(); a++) {
+            columnNames[a + 1] = data.attribute(a).name();
+        }
+        return new LazyTableModel(columnNames, data.numInstances(), (row, column) -> {
+            if (column == 0) {
+                return String.valueOf(row + 1);
+            }
+            Attribute attribute = data.attribute(column - 1);
+            if (data.instance(row).isMissing(attribute)) {
+                return "?";
+            }
+            return attribute.isNumeric() ? String.valueOf(data.instance(row).value(attribute))
+                    : data.instance(row).stringValue(attribute);
+        });
+    }
+
+    /**
+     * One row per attribute with its type, range, mean and standard deviation
+     * or value count, and the sketched median, 90th percentile and distinct count.
+     */
+    public static LazyTableModel forColumnStats(Instances header, ColumnStatsEngine.ColumnStats[] stats) {
+        String[] columnNames = { "Attribute", "Type", "Minimum", "Maximum", "Mean", "Std Dev", "Median",
+                "90th Percentile", "Distinct Values" };
+        return new LazyTableModel(columnNames, header.numAttributes(), (row, column) -> {
+            boolean numeric = header.attribute(row).isNumeric();
+            switch (column) {
+                case 0:
+                    return header.attribute(row).name();
+                case 1:
+                    return numeric ? "Numeric" : "Nominal";
+                case 2:
+                    return numeric ? String.valueOf(stats[row].min) : "-";
+                case 3:
+                    return numeric ? String.valueOf(stats[row].max) : "-";
+                case 4:
+                    return numeric ? String.valueOf(stats[row].mean) : "-";
+                case 5:
+                    return numeric ? String.valueOf(stats[row].stdDev) : String.valueOf(stats[row].nominalCounts.length);
+                case 6:
+                    return numeric ? String.valueOf(stats[row].quantile(0.5)) : "-";
+                case 7:
+                    return numeric ? String.valueOf(stats[row].quantile(0.9)) : "-";
+                default:
+                    long distinct = stats[row].distinctCount();
+                    return distinct >= 0 ? String.valueOf(distinct) : "-";
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_ROWS;
+        Object[][] cells = pages.get(page);
+        if (cells == null) {
+            cells = new Object[Math.min(PAGE_ROWS, rowCount - page * PAGE_ROWS)][];
+            pages.put(page, cells);
+        }
+        Object[] rowCells = cells[row - page * PAGE_ROWS];
+        if (rowCells == null) {
+            rowCells = new Object[columnNames.length];
+            cells[row - page * PAGE_ROWS] = rowCells;
+        }
+        Object value = rowCells[column];
+        if (value == null) {
+            value = source.valueAt(row, column);
+            rowCells[column] = value;
+        }
+        return value;
+    }
+}
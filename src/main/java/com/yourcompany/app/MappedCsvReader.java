@@ -0,0 +1,435 @@
+package com.yourcompany.app;
+
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a CSV file by memory-mapping it, splitting it into line-aligned
+ * segments and parsing the segments in parallel into primitive
+ * {@code double[]} columns and dictionary-encoded nominal columns, which
+ * become a {@link ColumnarDataset} without ever building a row.
+ * <p>
+ * Like {@code CSVLoader}, a column is numeric only if every non-missing value
+ * parses as a number. Types are first inferred from a sample of leading rows;
+ * if a later value contradicts the sample the column becomes nominal and the
+ * file is parsed again. Quoted fields may contain commas but not line breaks.
+ */
+public final class MappedCsvReader {
+    private static final long MAX_SEGMENT_BYTES = 256L * 1024 * 1024;
+    private static final int SAMPLE_ROWS = 10000;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private MappedCsvReader() {
+    }
+
+    public static Instances read(File file) throws IOException {
+        return read(file, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public static Instances read(File file, int parallelism) throws IOException {
+        return readColumns(file, parallelism).asInstances();
+    }
+
+    /** Reads {@code file} into columns without building any rows. */
+    public static ColumnarDataset readColumns(File file) throws IOException {
+        return readColumns(file, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public static ColumnarDataset readColumns(File file, int parallelism) throws IOException {
+        Instances sampled;
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, SAMPLE_ROWS)) {
+            sampled = reader.getStructure();
+        }
+        int numColumns = sampled.numAttributes();
+        boolean[] numeric = new boolean[numColumns];
+        for (int c = 0; c < numColumns; c++) {
+            numeric[c] = sampled.attribute(c).isNumeric();
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = segmentBounds(channel, parallelism);
+            while (true) {
+                Segment[] segments = parseSegments(channel, bounds, numeric);
+                boolean retry = false;
+                for (Segment segment : segments) {
+                    for (int c = 0; c < numColumns; c++) {
+                        if (segment.demoted[c]) {
+                            numeric[c] = false;
+                            retry = true;
+                        }
+                    }
+                }
+                if (!retry) {
+                    return assemble(file, sampled, numeric, segments);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns segment boundaries: bounds[0] is the first byte after the header
+     * line and every other boundary is the first byte of a line.
+     */
+    private static long[] segmentBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long dataStart = nextLineStart(channel, 0);
+        long dataBytes = size - dataStart;
+        int count = (int) Math.max(parallelism, (dataBytes + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+        count = (int) Math.max(1, Math.min(count, dataBytes / 4096 + 1));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(dataStart);
+        for (int i = 1; i < count; i++) {
+            long boundary = nextLineStart(channel, dataStart + dataBytes * i / count);
+            if (boundary > bounds.get(bounds.size() - 1) && boundary < size) {
+                bounds.add(boundary);
+            }
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /** Returns the position just past the first line break at or after {@code position}. */
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long pos = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+    }
+
+    private static Segment[] parseSegments(FileChannel channel, long[] bounds, boolean[] numeric)
+            throws IOException {
+        List<Callable<Segment>> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            long start = bounds[i];
+            long end = bounds[i + 1];
+            tasks.add(() -> {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                Segment segment = new Segment(numeric, (int) Math.min((end - start) / 32 + 16, 1 << 16));
+                segment.parse(buffer);
+                return segment;
+            });
+        }
+        Segment[] segments = new Segment[tasks.size()];
+        try {
+            List<Future<Segment>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV parse interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        return segments;
+    }
+
+    private static ColumnarDataset assemble(File file, Instances sampled, boolean[] numeric, Segment[] segments) {
+        int numColumns = numeric.length;
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        int[][][] remap = new int[numColumns][][];
+        for (int c = 0; c < numColumns; c++) {
+            String name = sampled.attribute(c).name();
+            if (numeric[c]) {
+                attributes.add(new Attribute(name));
+                continue;
+            }
+            Map<String, Integer> merged = new HashMap<>();
+            List<String> values = new ArrayList<>();
+            remap[c] = new int[segments.length][];
+            for (int s = 0; s < segments.length; s++) {
+                List<String> local = segments[s].dictionaryValues.get(c);
+                remap[c][s] = new int[local.size()];
+                for (int k = 0; k < local.size(); k++) {
+                    Integer index = merged.get(local.get(k));
+                    if (index == null) {
+                        index = values.size();
+                        merged.put(local.get(k), index);
+                        values.add(local.get(k));
+                    }
+                    remap[c][s][k] = index;
+                }
+            }
+            attributes.add(new Attribute(name, values));
+        }
+
+        int totalRows = 0;
+        for (Segment segment : segments) {
+            totalRows += segment.rows;
+        }
+        double[][] numericColumns = new double[numColumns][];
+        int[][] codeColumns = new int[numColumns][];
+        for (int c = 0; c < numColumns; c++) {
+            if (numeric[c]) {
+                numericColumns[c] = new double[totalRows];
+            } else {
+                codeColumns[c] = new int[totalRows];
+            }
+            int offset = 0;
+            for (int s = 0; s < segments.length; s++) {
+                Segment segment = segments[s];
+                if (numeric[c]) {
+                    System.arraycopy(segment.numericColumns[c], 0, numericColumns[c], offset, segment.rows);
+                } else {
+                    int[] codes = segment.nominalColumns[c];
+                    for (int r = 0; r < segment.rows; r++) {
+                        codeColumns[c][offset + r] = codes[r] < 0 ? -1 : remap[c][s][codes[r]];
+                    }
+                }
+                offset += segment.rows;
+            }
+        }
+        String relation = file.getName().replaceFirst("\\.[^.]*$", "");
+        return new ColumnarDataset(new Instances(relation, attributes, 0), totalRows, numericColumns, codeColumns);
+    }
+
+    /** Parsed columns of one line-aligned region of the file. */
+    private static final class Segment {
+        private final boolean[] numeric;
+        private final boolean[] demoted;
+        private final double[][] numericColumns;
+        private final int[][] nominalColumns;
+        private final List<List<String>> dictionaryValues;
+        private final List<Map<String, Integer>> dictionaries;
+        private int rows;
+        private int capacity;
+        private byte[] scratch = new byte[64];
+
+        Segment(boolean[] numeric, int capacity) {
+            int numColumns = numeric.length;
+            this.numeric = numeric;
+            this.capacity = capacity;
+            this.demoted = new boolean[numColumns];
+            this.numericColumns = new double[numColumns][];
+            this.nominalColumns = new int[numColumns][];
+            this.dictionaryValues = new ArrayList<>(numColumns);
+            this.dictionaries = new ArrayList<>(numColumns);
+            for (int c = 0; c < numColumns; c++) {
+                if (numeric[c]) {
+                    numericColumns[c] = new double[capacity];
+                    dictionaryValues.add(null);
+                    dictionaries.add(null);
+                } else {
+                    nominalColumns[c] = new int[capacity];
+                    dictionaryValues.add(new ArrayList<>());
+                    dictionaries.add(new HashMap<>());
+                }
+            }
+        }
+
+        void parse(ByteBuffer buffer) throws InterruptedIOException {
+            int limit = buffer.limit();
+            int pos = 0;
+            while (pos < limit) {
+                int lineEnd = pos;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd;
+                if (contentEnd > pos && buffer.get(contentEnd - 1) == '\r') {
+                    contentEnd--;
+                }
+                if (contentEnd > pos) {
+                    parseLine(buffer, pos, contentEnd);
+                    if ((rows & 0xFFFF) == 0 && Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("CSV parse interrupted");
+                    }
+                }
+                pos = lineEnd + 1;
+            }
+        }
+
+        private void parseLine(ByteBuffer buffer, int start, int end) {
+            if (rows == capacity) {
+                grow();
+            }
+            int column = 0;
+            int fieldStart = start;
+            boolean quoted = false;
+            boolean sawQuote = false;
+            for (int i = start; i <= end; i++) {
+                byte b = i < end ? buffer.get(i) : (byte) ',';
+                if (b == '"') {
+                    quoted = !quoted;
+                    sawQuote = true;
+                } else if (b == ',' && !quoted) {
+                    if (column < numeric.length) {
+                        storeField(buffer, column, fieldStart, i, sawQuote);
+                    }
+                    column++;
+                    fieldStart = i + 1;
+                    sawQuote = false;
+                }
+            }
+            for (; column < numeric.length; column++) {
+                storeMissing(column);
+            }
+            rows++;
+        }
+
+        private void storeField(ByteBuffer buffer, int column, int start, int end, boolean sawQuote) {
+            while (start < end && buffer.get(start) == ' ') {
+                start++;
+            }
+            while (end > start && buffer.get(end - 1) == ' ') {
+                end--;
+            }
+            if (start == end || (end - start == 1 && buffer.get(start) == '?')) {
+                storeMissing(column);
+                return;
+            }
+            if (numeric[column] && !sawQuote) {
+                double value = parseNumber(buffer, start, end);
+                if (!Double.isNaN(value)) {
+                    numericColumns[column][rows] = value;
+                    return;
+                }
+            }
+            String text = decode(buffer, start, end, sawQuote);
+            if (numeric[column]) {
+                try {
+                    numericColumns[column][rows] = Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    demoted[column] = true;
+                    numericColumns[column][rows] = Utils.missingValue();
+                }
+                return;
+            }
+            Integer code = dictionaries.get(column).get(text);
+            if (code == null) {
+                code = dictionaryValues.get(column).size();
+                dictionaries.get(column).put(text, code);
+                dictionaryValues.get(column).add(text);
+            }
+            nominalColumns[column][rows] = code;
+        }
+
+        private void storeMissing(int column) {
+            if (numeric[column]) {
+                numericColumns[column][rows] = Utils.missingValue();
+            } else {
+                nominalColumns[column][rows] = -1;
+            }
+        }
+
+        private String decode(ByteBuffer buffer, int start, int end, boolean sawQuote) {
+            int length = end - start;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            int n = 0;
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '"' && sawQuote) {
+                    if (i + 1 < end && buffer.get(i + 1) == '"') {
+                        scratch[n++] = b;
+                        i++;
+                    }
+                    continue;
+                }
+                scratch[n++] = b;
+            }
+            return new String(scratch, 0, n, StandardCharsets.UTF_8).trim();
+        }
+
+        private void grow() {
+            capacity *= 2;
+            for (int c = 0; c < numeric.length; c++) {
+                if (numeric[c]) {
+                    numericColumns[c] = Arrays.copyOf(numericColumns[c], capacity);
+                } else {
+                    nominalColumns[c] = Arrays.copyOf(nominalColumns[c], capacity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses plain decimals such as {@code -12.375} without allocating.
+     * Returns NaN for anything else so the caller can fall back to
+     * {@link Double#parseDouble}.
+     */
+    static double parseNumber(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digits >= 15) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                seenDigit = true;
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!seenDigit || scale >= POWERS_OF_TEN.length) {
+            return Double.NaN;
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+}
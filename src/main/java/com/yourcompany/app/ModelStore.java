@@ -0,0 +1,156 @@
+package com.yourcompany.app;
+
+import weka.classifiers.Classifier;
+import weka.core.OptionHandler;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+
+/**
+ * On-disk cache of trained models keyed by a SHA-256 hash of the training
+ * file contents plus the classifier options, so an unchanged dataset does not
+ * have to be retrained on every launch. When a training file changes, the
+ * model stored for its previous contents is deleted, and the least recently
+ * used models are evicted once the store grows past its size cap. The options
+ * of the last model saved for a file are remembered, so a tuned model is
+ * found again, and retrained with the same options after the file changes.
+ */
+public class ModelStore {
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+    private static final String MODEL_SUFFIX = ".model";
+    private static final String INDEX_FILE = "index.properties";
+    private static final String OPTIONS_PREFIX = "options:";
+
+    private final File directory;
+    private final long maxBytes;
+
+    public ModelStore(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    public static ModelStore defaultStore() {
+        return new ModelStore(new File(System.getProperty("user.home"), ".chatbot-models"), DEFAULT_MAX_BYTES);
+    }
+
+    public String key(File trainingFile, String[] options) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        byte[] buffer = new byte[1 << 20];
+        try (InputStream in = new FileInputStream(trainingFile)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update(Utils.joinOptions(options).getBytes(StandardCharsets.UTF_8));
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /** Returns the stored model for {@code key}, or null if there is none or it cannot be read. */
+    public synchronized Classifier load(String key) {
+        File modelFile = new File(directory, key + MODEL_SUFFIX);
+        if (!modelFile.isFile()) {
+            return null;
+        }
+        try {
+            Classifier model = (Classifier) SerializationHelper.read(modelFile.getPath());
+            modelFile.setLastModified(System.currentTimeMillis());
+            return model;
+        } catch (Exception e) {
+            e.printStackTrace();
+            modelFile.delete();
+            return null;
+        }
+    }
+
+    /** Options of the model last saved for {@code trainingFile}, or null if none was saved. */
+    public synchronized String[] options(File trainingFile) {
+        try {
+            String options = readIndex().getProperty(OPTIONS_PREFIX + trainingFile.getCanonicalPath());
+            return options != null ? Utils.splitOptions(options) : null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public synchronized void save(String key, File trainingFile, Classifier model) throws Exception {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create model store " + directory);
+        }
+        File modelFile = new File(directory, key + MODEL_SUFFIX);
+        File tempFile = new File(directory, key + ".tmp");
+        SerializationHelper.write(tempFile.getPath(), model);
+        modelFile.delete();
+        if (!tempFile.renameTo(modelFile)) {
+            tempFile.delete();
+            throw new IOException("Cannot write " + modelFile);
+        }
+
+        Properties index = readIndex();
+        String path = trainingFile.getCanonicalPath();
+        String previousKey = (String) index.remove(path);
+        if (previousKey != null && !previousKey.equals(key) && !index.containsValue(previousKey)) {
+            new File(directory, previousKey + MODEL_SUFFIX).delete();
+        }
+        index.setProperty(path, key);
+        if (model instanceof OptionHandler) {
+            index.setProperty(OPTIONS_PREFIX + path, Utils.joinOptions(((OptionHandler) model).getOptions()));
+        }
+        writeIndex(index);
+        evict();
+    }
+
+    private void evict() {
+        File[] models = directory.listFiles((dir, name) -> name.endsWith(MODEL_SUFFIX));
+        if (models == null) {
+            return;
+        }
+        Arrays.sort(models, Comparator.comparingLong(File::lastModified).reversed());
+        long total = 0;
+        for (int i = 0; i < models.length; i++) {
+            total += models[i].length();
+            if (total > maxBytes && i > 0) {
+                models[i].delete();
+            }
+        }
+    }
+
+    private Properties readIndex() throws IOException {
+        Properties index = new Properties();
+        File indexFile = new File(directory, INDEX_FILE);
+        if (indexFile.isFile()) {
+            try (InputStream in = new FileInputStream(indexFile)) {
+                index.load(in);
+            }
+        }
+        return index;
+    }
+
+    private void writeIndex(Properties index) throws IOException {
+        try (OutputStream out = new FileOutputStream(new File(directory, INDEX_FILE))) {
+            index.store(out, "Training file -> model key");
+        }
+    }
+}
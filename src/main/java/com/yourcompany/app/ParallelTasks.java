@@ -0,0 +1,35 @@
+package com.yourcompany.app;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/** Runs independent tasks on the common fork-join pool. */
+final class ParallelTasks {
+    private ParallelTasks() {
+    }
+
+    /**
+     * Runs {@code tasks} and returns their results in order. A task's own
+     * exception is rethrown unwrapped; an interrupt becomes an
+     * {@link InterruptedIOException} naming {@code what} was interrupted.
+     */
+    static <T> List<T> invokeAll(String what, List<Callable<T>> tasks) throws Exception {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(what + " interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,191 @@
+package com.yourcompany.app;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A KLL sketch of a stream of numbers that answers quantile queries with a
+ * rank error of roughly 1.5% of the count at the default size, in memory that
+ * grows only with the logarithm of the count. Values are kept in levels; a
+ * value at level {@code h} stands for {@code 2^h} values of the stream. A
+ * full level is sorted and every other value, starting at a random one of
+ * the first two, moves up a level. Sketches of disjoint streams merge into a
+ * sketch of their union, which is how chunks, batches and files combine.
+ */
+public final class QuantileSketch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_K = 200;
+    private static final int MIN_CAPACITY = 8;
+
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    private int[] capacities;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long random = 0x9E3779B97F4A7C15L;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /** {@code k} is the capacity of the top level; the rank error shrinks in proportion to it. */
+    public QuantileSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ", got " + k);
+        }
+        this.k = k;
+        levels = new double[][] { new double[k] };
+        sizes = new int[1];
+        capacities = new int[] { k };
+    }
+
+    /** Adds a value; NaN is ignored. */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        append(0, value);
+        if (sizes[0] >= capacities[0]) {
+            compress();
+        }
+    }
+
+    /** Adds the values of {@code other}, which is left unchanged. */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        while (levels.length < other.levels.length) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+        return this;
+    }
+
+    public QuantileSketch copy() {
+        return new QuantileSketch(k).merge(this);
+    }
+
+    /** Number of values added, including those added through merges. */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * The value whose rank is about {@code q} times the count: the minimum
+     * for 0, the maximum for 1 and NaN for an empty sketch.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        int retained = retained();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double target = q * count;
+        long cumulative = 0;
+        for (Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    /** Values currently held, a measure of the sketch's memory. */
+    int retained() {
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(MIN_CAPACITY, 2 * sizes[level]));
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levels[levels.length - 1] = new double[MIN_CAPACITY];
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        // Capacities shrink by 2/3 per level below the top one.
+        capacities = new int[levels.length];
+        for (int h = 0; h < levels.length; h++) {
+            int depth = levels.length - 1 - h;
+            capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3, depth)));
+        }
+    }
+
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= capacities[h]) {
+                compact(h);
+            }
+        }
+    }
+
+    /** Promotes half of a level's values; with an odd size the largest one stays behind. */
+    private void compact(int level) {
+        if (level + 1 == levels.length) {
+            addLevel();
+        }
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+        int even = size & ~1;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        for (int i = (int) (random & 1); i < even; i += 2) {
+            append(level + 1, values[i]);
+        }
+        if (even < size) {
+            values[0] = values[size - 1];
+        }
+        sizes[level] = size - even;
+    }
+}
@@ -0,0 +1,99 @@
+package com.yourcompany.app;
+
+import weka.core.Instances;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of analysis commands keyed by the dataset, its version, the
+ * command and the command's arguments, so repeating a command returns the
+ * earlier result instead of recomputing it. The dataset is matched by
+ * identity and the caller bumps the version whenever it changes the dataset
+ * in place; a dataset that is replaced or modified should also be
+ * {@link #invalidate invalidated} so its results do not keep it reachable.
+ * The least recently used results are dropped past a fixed entry count.
+ */
+public final class ResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final Map<Key, Object> entries;
+
+    public ResultCache(int maxEntries) {
+        entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Identifies one command run; arguments are compared with {@code equals}. */
+    public static final class Key {
+        private final WeakReference<Instances> data;
+        private final int dataHash;
+        private final long version;
+        private final String command;
+        private final List<Object> args;
+
+        Key(Instances data, long version, String command, Object... args) {
+            this.data = new WeakReference<>(data);
+            this.dataHash = System.identityHashCode(data);
+            this.version = version;
+            this.command = command;
+            this.args = Arrays.asList(args);
+        }
+
+        boolean isFor(Instances dataset) {
+            Instances referent = data.get();
+            return referent == null || referent == dataset;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((dataHash * 31 + Long.hashCode(version)) * 31 + command.hashCode()) * 31 + args.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            Instances referent = data.get();
+            return referent != null && referent == other.data.get() && version == other.version
+                    && command.equals(other.command) && args.equals(other.args);
+        }
+    }
+
+    public static Key key(Instances data, long version, String command, Object... args) {
+        return new Key(data, version, command, args);
+    }
+
+    /** The result stored for {@code key}, or null. */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(Key key) {
+        return (T) entries.get(key);
+    }
+
+    public synchronized void put(Key key, Object result) {
+        entries.put(key, result);
+    }
+
+    /** Drops every result computed on {@code data}, along with those whose dataset is gone. */
+    public synchronized void invalidate(Instances data) {
+        for (Iterator<Key> keys = entries.keySet().iterator(); keys.hasNext();) {
+            if (keys.next().isFor(data)) {
+                keys.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
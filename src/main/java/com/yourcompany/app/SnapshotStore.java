@@ -0,0 +1,365 @@
+package com.yourcompany.app;
+
+import weka.core.Attribute;
+import weka.core.Instances;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * On-disk binary snapshots of parsed CSV files, so reopening an unchanged
+ * file maps its columns instead of parsing text. A snapshot is written after
+ * the first parse and holds the attributes and nominal dictionaries followed
+ * by one little-endian block per column, {@code double}s for numeric columns
+ * and dictionary codes for nominal ones. It is used only while the CSV file
+ * has the size, modification time and fingerprint recorded in it; the
+ * fingerprint hashes the first and last megabyte, so checking it does not
+ * read the whole file. The least recently used snapshots are evicted once
+ * the store grows past its size cap.
+ * <p>
+ * Layout: the magic, the offset of the first column block, the source size,
+ * modification time and fingerprint, the header written with
+ * {@link DataOutputStream}, then the column blocks, each starting on an
+ * 8-byte boundary.
+ */
+public class SnapshotStore {
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024 * 1024;
+    private static final byte[] MAGIC = "WKCOLS01".getBytes(StandardCharsets.US_ASCII);
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int FINGERPRINT_BYTES = 1 << 20;
+    private static final int FIXED_HEADER_BYTES = MAGIC.length + 3 * Long.BYTES + 32;
+    private static final int MAX_MAPPED_BYTES = 1 << 30;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final File directory;
+    private final long maxBytes;
+
+    public SnapshotStore(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    public static SnapshotStore defaultStore() {
+        return new SnapshotStore(new File(System.getProperty("user.home"), ".chatbot-snapshots"), DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Returns the columns of {@code csv}, from its snapshot when that is
+     * current, otherwise by parsing the file and then writing a snapshot.
+     * Failing to write the snapshot does not fail the load.
+     */
+    public ColumnarDataset load(File csv) throws IOException {
+        // Stamped before parsing, so a file that changes meanwhile gets a snapshot that is already stale.
+        Stamp stamp = new Stamp(csv);
+        ColumnarDataset columns = read(csv, stamp);
+        if (columns != null) {
+            return columns;
+        }
+        columns = MappedCsvReader.readColumns(csv);
+        try {
+            write(csv, columns, stamp);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return columns;
+    }
+
+    /** The snapshot of {@code csv}, or null if there is none or it does not match the file. */
+    public ColumnarDataset read(File csv) throws IOException {
+        return read(csv, new Stamp(csv));
+    }
+
+    private synchronized ColumnarDataset read(File csv, Stamp stamp) throws IOException {
+        File snapshot = snapshotFile(csv);
+        if (!snapshot.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(fixed, 0) < FIXED_HEADER_BYTES) {
+                return null;
+            }
+            fixed.flip();
+            byte[] magic = new byte[MAGIC.length];
+            fixed.get(magic);
+            long dataOffset = fixed.getLong();
+            long sourceLength = fixed.getLong();
+            long sourceLastModified = fixed.getLong();
+            byte[] fingerprint = new byte[32];
+            fixed.get(fingerprint);
+            if (!Arrays.equals(magic, MAGIC) || sourceLength != stamp.length
+                    || sourceLastModified != stamp.lastModified || !Arrays.equals(fingerprint, stamp.fingerprint)) {
+                return null;
+            }
+
+            MappedByteBuffer headerBytes = channel.map(FileChannel.MapMode.READ_ONLY, FIXED_HEADER_BYTES,
+                    dataOffset - FIXED_HEADER_BYTES);
+            DataInputStream in = new DataInputStream(new ByteBufferInputStream(headerBytes));
+            String relation = in.readUTF();
+            int numRows = in.readInt();
+            int numColumns = in.readInt();
+            ArrayList<Attribute> attributes = new ArrayList<>();
+            for (int c = 0; c < numColumns; c++) {
+                String name = in.readUTF();
+                if (in.readBoolean()) {
+                    attributes.add(new Attribute(name));
+                } else {
+                    List<String> values = new ArrayList<>();
+                    int numValues = in.readInt();
+                    for (int k = 0; k < numValues; k++) {
+                        values.add(in.readUTF());
+                    }
+                    attributes.add(new Attribute(name, values));
+                }
+            }
+
+            long end = dataOffset;
+            for (Attribute attribute : attributes) {
+                end = align(end + (long) numRows * (attribute.isNumeric() ? Double.BYTES : Integer.BYTES));
+            }
+            if (channel.size() != end) {
+                throw new IOException("Snapshot " + snapshot + " is " + channel.size() + " bytes, expected " + end);
+            }
+
+            double[][] numericColumns = new double[numColumns][];
+            int[][] codeColumns = new int[numColumns][];
+            long position = dataOffset;
+            for (int c = 0; c < numColumns; c++) {
+                boolean numeric = attributes.get(c).isNumeric();
+                int width = numeric ? Double.BYTES : Integer.BYTES;
+                if (numeric) {
+                    numericColumns[c] = new double[numRows];
+                } else {
+                    codeColumns[c] = new int[numRows];
+                }
+                int rowsPerMap = MAX_MAPPED_BYTES / width;
+                for (int from = 0; from < numRows; from += rowsPerMap) {
+                    int rows = Math.min(rowsPerMap, numRows - from);
+                    ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position + (long) from * width,
+                            (long) rows * width).order(ByteOrder.LITTLE_ENDIAN);
+                    if (numeric) {
+                        block.asDoubleBuffer().get(numericColumns[c], from, rows);
+                    } else {
+                        block.asIntBuffer().get(codeColumns[c], from, rows);
+                    }
+                }
+                position = align((long) numRows * width + position);
+            }
+            snapshot.setLastModified(System.currentTimeMillis());
+            return new ColumnarDataset(new Instances(relation, attributes, 0), numRows, numericColumns, codeColumns);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or unreadable snapshot is dropped and rebuilt from the CSV file.
+            System.err.println("Ignoring snapshot: " + e);
+            snapshot.delete();
+            return null;
+        }
+    }
+
+    /** Writes the snapshot of {@code csv}, replacing any earlier one. */
+    public void write(File csv, ColumnarDataset columns) throws IOException {
+        write(csv, columns, new Stamp(csv));
+    }
+
+    private synchronized void write(File csv, ColumnarDataset columns, Stamp stamp) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create snapshot store " + directory);
+        }
+        Instances header = columns.header();
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(headerBytes)) {
+            out.writeUTF(header.relationName());
+            out.writeInt(columns.numRows());
+            out.writeInt(header.numAttributes());
+            for (int c = 0; c < header.numAttributes(); c++) {
+                Attribute attribute = header.attribute(c);
+                if (!attribute.isNumeric() && !attribute.isNominal()) {
+                    throw new IOException("Cannot snapshot " + attribute.name() + ": only numeric and nominal"
+                            + " columns are supported");
+                }
+                out.writeUTF(attribute.name());
+                out.writeBoolean(attribute.isNumeric());
+                if (attribute.isNominal()) {
+                    out.writeInt(attribute.numValues());
+                    for (int k = 0; k < attribute.numValues(); k++) {
+                        out.writeUTF(attribute.value(k));
+                    }
+                }
+            }
+        }
+        long dataOffset = align(FIXED_HEADER_BYTES + headerBytes.size());
+
+        File snapshot = snapshotFile(csv);
+        File tempFile = new File(directory, snapshot.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer fixed = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+            fixed.put(MAGIC);
+            fixed.putLong(dataOffset);
+            fixed.putLong(stamp.length);
+            fixed.putLong(stamp.lastModified);
+            fixed.put(stamp.fingerprint);
+            fixed.put(headerBytes.toByteArray());
+            fixed.position((int) dataOffset);
+            fixed.flip();
+            writeFully(channel, fixed);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int numRows = columns.numRows();
+            for (int c = 0; c < header.numAttributes(); c++) {
+                double[] numeric = columns.numericColumn(c);
+                int[] codes = columns.codeColumn(c);
+                int width = numeric != null ? Double.BYTES : Integer.BYTES;
+                int rowsPerBuffer = WRITE_BUFFER_BYTES / width;
+                for (int from = 0; from < numRows; from += rowsPerBuffer) {
+                    int rows = Math.min(rowsPerBuffer, numRows - from);
+                    buffer.clear();
+                    if (numeric != null) {
+                        buffer.asDoubleBuffer().put(numeric, from, rows);
+                    } else {
+                        buffer.asIntBuffer().put(codes, from, rows);
+                    }
+                    buffer.limit(rows * width);
+                    writeFully(channel, buffer);
+                }
+                int padding = (int) (align((long) numRows * width) - (long) numRows * width);
+                writeFully(channel, ByteBuffer.allocate(padding));
+            }
+        }
+        snapshot.delete();
+        if (!tempFile.renameTo(snapshot)) {
+            tempFile.delete();
+            throw new IOException("Cannot write " + snapshot);
+        }
+        evict();
+    }
+
+    /** What a snapshot records about its CSV file to tell whether the file has changed. */
+    private static final class Stamp {
+        final long length;
+        final long lastModified;
+        final byte[] fingerprint;
+
+        Stamp(File csv) throws IOException {
+            length = csv.length();
+            lastModified = csv.lastModified();
+            fingerprint = fingerprint(csv);
+        }
+    }
+
+    private File snapshotFile(File csv) throws IOException {
+        return new File(directory, hex(sha256(csv.getCanonicalPath().getBytes(StandardCharsets.UTF_8)))
+                + SNAPSHOT_SUFFIX);
+    }
+
+    /** SHA-256 of the first and last {@code FINGERPRINT_BYTES} of {@code file}. */
+    private static byte[] fingerprint(File file) throws IOException {
+        MessageDigest digest = digest();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(FINGERPRINT_BYTES);
+            digestRange(channel, 0, Math.min(size, FINGERPRINT_BYTES), buffer, digest);
+            if (size > FINGERPRINT_BYTES) {
+                long start = Math.max(FINGERPRINT_BYTES, size - FINGERPRINT_BYTES);
+                digestRange(channel, start, size - start, buffer, digest);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void digestRange(FileChannel channel, long start, long length, ByteBuffer buffer,
+            MessageDigest digest) throws IOException {
+        buffer.clear();
+        buffer.limit((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        digest.update(buffer);
+    }
+
+    private static byte[] sha256(byte[] bytes) throws IOException {
+        return digest().digest(bytes);
+    }
+
+    private static MessageDigest digest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder text = new StringBuilder();
+        for (byte b : bytes) {
+            text.append(String.format("%02x", b));
+        }
+        return text.toString();
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void evict() {
+        File[] snapshots = directory.listFiles((dir, name) -> name.endsWith(SNAPSHOT_SUFFIX));
+        if (snapshots == null) {
+            return;
+        }
+        Arrays.sort(snapshots, Comparator.comparingLong(File::lastModified).reversed());
+        long total = 0;
+        for (int i = 0; i < snapshots.length; i++) {
+            total += snapshots[i].length();
+            if (total > maxBytes && i > 0) {
+                snapshots[i].delete();
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
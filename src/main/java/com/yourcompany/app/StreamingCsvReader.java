@@ -0,0 +1,401 @@
+package com.yourcompany.app;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a CSV file in row batches instead of materializing the whole file the
+ * way {@code CSVLoader.getDataSet()} does. Attribute types and nominal values
+ * are inferred from a sample of leading rows; later values that do not fit
+ * the inferred header are read as missing and counted in
+ * {@link #unknownValues()}. A reader for training can make the last column
+ * the class: its nominal values then come from a pre-pass over the whole
+ * file, so a class value first seen after the sample is still a class value
+ * rather than an unlabelled row.
+ */
+public class StreamingCsvReader implements Closeable {
+    public static final int DEFAULT_SAMPLE_ROWS = 1000;
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
+    private final BufferedReader reader;
+    private final CountingInputStream input;
+    private final Instances structure;
+    private final Deque<String[]> sampledRows = new ArrayDeque<>();
+    private long rowsRead;
+    private long unknownValues;
+
+    public StreamingCsvReader(File file) throws IOException {
+        this(file, DEFAULT_SAMPLE_ROWS);
+    }
+
+    /** Infers every column from the sample and sets no class. */
+    public StreamingCsvReader(File file, int sampleRows) throws IOException {
+        this(file, sampleRows, false);
+    }
+
+    /**
+     * With {@code withClass} set, the last column is the class and, when it
+     * is nominal, its values are collected from every row of the file first.
+     */
+    public StreamingCsvReader(File file, int sampleRows, boolean withClass) throws IOException {
+        input = new CountingInputStream(Files.newInputStream(file.toPath()));
+        reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String[] names = readHeader(file);
+        String line;
+        while (sampledRows.size() < sampleRows && (line = readLine()) != null) {
+            if (!line.isEmpty()) {
+                sampledRows.add(splitLine(line));
+            }
+        }
+        Instances inferred = inferStructure(file.getName(), names, sampledRows);
+        if (withClass) {
+            int classIndex = inferred.numAttributes() - 1;
+            if (inferred.attribute(classIndex).isNominal()) {
+                try {
+                    inferred = withValues(inferred, classIndex, columnValues(file, classIndex));
+                } catch (IOException e) {
+                    reader.close();
+                    throw e;
+                }
+            }
+            inferred.setClassIndex(classIndex);
+        }
+        structure = inferred;
+    }
+
+    /**
+     * Reads {@code file} against an existing header, such as the training set
+     * of a classifier. Columns are matched by position and any trailing columns
+     * missing from the file are read as missing values.
+     */
+    public StreamingCsvReader(File file, Instances header) throws IOException {
+        input = new CountingInputStream(Files.newInputStream(file.toPath()));
+        reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        readHeader(file);
+        structure = new Instances(header, 0);
+    }
+
+    /**
+     * Reads only the rows in bytes {@code [start, end)} of {@code file}
+     * against {@code header}, such as rows appended since an earlier read.
+     * {@code start} must be past the header line and at the start of a row.
+     */
+    public StreamingCsvReader(File file, Instances header, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        channel.position(start);
+        input = new CountingInputStream(
+                new RangeInputStream(Channels.newInputStream(channel), Math.max(0, end - start)));
+        reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        structure = new Instances(header, 0);
+    }
+
+    private String[] readHeader(File file) throws IOException {
+        String headerLine = readLine();
+        if (headerLine == null) {
+            reader.close();
+            throw new IOException("Empty CSV file: " + file);
+        }
+        return splitLine(headerLine);
+    }
+
+    /** Returns an empty dataset with the header used for every batch. */
+    public Instances getStructure() {
+        return new Instances(structure, 0);
+    }
+
+    /**
+     * Returns the next batch of at most {@code batchSize} rows, or null once
+     * the file is exhausted.
+     */
+    public Instances nextBatch(int batchSize) throws IOException {
+        Instances batch = new Instances(structure, batchSize);
+        while (batch.numInstances() < batchSize) {
+            String[] fields;
+            if (!sampledRows.isEmpty()) {
+                fields = sampledRows.poll();
+            } else {
+                String line = readLine();
+                if (line == null) {
+                    break;
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+                fields = splitLine(line);
+            }
+            batch.add(toInstance(fields));
+            rowsRead++;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("CSV read interrupted");
+        }
+        return batch.numInstances() == 0 ? null : batch;
+    }
+
+    public long rowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Returns the number of bytes read from the file so far, counted from
+     * the start of the range for a range reader. This runs a buffer ahead of
+     * the rows returned, which is close enough for progress.
+     */
+    public long bytesRead() {
+        return input.count;
+    }
+
+    public long unknownValues() {
+        return unknownValues;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    private DenseInstance toInstance(String[] fields) {
+        double[] values = new double[structure.numAttributes()];
+        for (int c = 0; c < values.length; c++) {
+            String field = c < fields.length ? fields[c] : "?";
+            if (isMissing(field)) {
+                values[c] = Utils.missingValue();
+                continue;
+            }
+            Attribute attribute = structure.attribute(c);
+            if (attribute.isNumeric()) {
+                try {
+                    values[c] = Double.parseDouble(field);
+                } catch (NumberFormatException e) {
+                    values[c] = Utils.missingValue();
+                    unknownValues++;
+                }
+            } else {
+                int index = attribute.indexOfValue(field);
+                if (index < 0) {
+                    values[c] = Utils.missingValue();
+                    unknownValues++;
+                } else {
+                    values[c] = index;
+                }
+            }
+        }
+        return new DenseInstance(1.0, values);
+    }
+
+    private static Instances inferStructure(String relationName, String[] names, Iterable<String[]> sample) {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        for (int c = 0; c < names.length; c++) {
+            boolean numeric = true;
+            Set<String> values = new LinkedHashSet<>();
+            for (String[] row : sample) {
+                if (c >= row.length || isMissing(row[c])) {
+                    continue;
+                }
+                values.add(row[c]);
+                if (numeric && !isNumber(row[c])) {
+                    numeric = false;
+                }
+            }
+            if (numeric) {
+                attributes.add(new Attribute(names[c]));
+            } else {
+                attributes.add(new Attribute(names[c], new ArrayList<>(values)));
+            }
+        }
+        return new Instances(relationName, attributes, 0);
+    }
+
+    /**
+     * Returns the distinct non-missing values of one column in order of first
+     * appearance. Only that column is split out of each row, so this costs
+     * little more than reading the file.
+     */
+    private static List<String> columnValues(File file, int column) throws IOException {
+        Set<String> values = new LinkedHashSet<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8))) {
+            in.readLine();
+            String line;
+            long rows = 0;
+            while ((line = in.readLine()) != null) {
+                String field = field(line, column);
+                if (field != null && !isMissing(field)) {
+                    values.add(field);
+                }
+                if (++rows % 65536 == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("CSV read interrupted");
+                }
+            }
+        }
+        return new ArrayList<>(values);
+    }
+
+    /** Field {@code column} of {@code line}, or null when the row is shorter. */
+    private static String field(String line, int column) {
+        if (line.indexOf('"') >= 0) {
+            String[] fields = splitLine(line);
+            return column < fields.length ? fields[column] : null;
+        }
+        int start = 0;
+        for (int c = 0; c < column; c++) {
+            int comma = line.indexOf(',', start);
+            if (comma < 0) {
+                return null;
+            }
+            start = comma + 1;
+        }
+        int end = line.indexOf(',', start);
+        return line.substring(start, end < 0 ? line.length() : end).trim();
+    }
+
+    /** A copy of {@code data}'s header whose nominal attribute {@code index} also has {@code extra} values. */
+    private static Instances withValues(Instances data, int index, List<String> extra) {
+        Attribute attribute = data.attribute(index);
+        Set<String> values = new LinkedHashSet<>();
+        for (int v = 0; v < attribute.numValues(); v++) {
+            values.add(attribute.value(v));
+        }
+        values.addAll(extra);
+        if (values.size() == attribute.numValues()) {
+            return data;
+        }
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        for (int c = 0; c < data.numAttributes(); c++) {
+            attributes.add(c == index ? new Attribute(attribute.name(), new ArrayList<>(values))
+                    : (Attribute) data.attribute(c).copy());
+        }
+        return new Instances(data.relationName(), attributes, 0);
+    }
+
+    private static boolean isMissing(String field) {
+        return field.isEmpty() || field.equals("?");
+    }
+
+    private static boolean isNumber(String field) {
+        try {
+            Double.parseDouble(field);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static String[] splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (ch == ',' && !quoted) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /** Counts the bytes read through it. */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /** Stops after a fixed number of bytes, so rows written past the range are not read. */
+    private static final class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+}
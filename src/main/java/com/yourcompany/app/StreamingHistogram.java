@@ -0,0 +1,181 @@
+package com.yourcompany.app;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of one numeric column built in a single pass, one value or one
+ * batch at a time, without copying the column. Values are counted into a
+ * fixed number of fine bins whose range doubles, merging neighbouring bins,
+ * whenever a value falls outside it; the first values are buffered to pick
+ * the starting range. Any number of display bins can then be derived from the
+ * fine bins, so changing the bin count never touches the data again.
+ */
+public class StreamingHistogram {
+    public static final int FINE_BINS = 4096;
+    private static final int MAX_SUGGESTED_BINS = 200;
+
+    private final long[] fine = new long[FINE_BINS];
+    private final double[] pending = new double[FINE_BINS];
+    private int pendingCount;
+    private boolean initialized;
+    private double lower;
+    private double width;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long count;
+    private long skipped;
+
+    /** Display bins: {@code counts[i]} values fall in {@code [edges[i], edges[i + 1])}. */
+    public static final class Bins {
+        public final double[] edges;
+        public final long[] counts;
+
+        Bins(double[] edges, long[] counts) {
+            this.edges = edges;
+            this.counts = counts;
+        }
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            skipped++;
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (!initialized) {
+            pending[pendingCount++] = value;
+            if (pendingCount == pending.length) {
+                flushPending();
+            }
+            return;
+        }
+        addToFine(value);
+    }
+
+    /** Adds the values of attribute {@code attIndex} for every row of {@code batch}. */
+    public void add(Instances batch, int attIndex) {
+        ColumnarDataset columns = ColumnarDataset.backing(batch);
+        if (columns != null && columns.numericColumn(attIndex) != null) {
+            for (double value : columns.numericColumn(attIndex)) {
+                add(value);
+            }
+            return;
+        }
+        for (Instance instance : batch) {
+            add(instance.value(attIndex));
+        }
+    }
+
+    /** Number of values counted; missing and infinite values are skipped. */
+    public long count() {
+        return count;
+    }
+
+    public long skipped() {
+        return skipped;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /** Splits {@code [min, max]} into {@code numBins} equal bins. */
+    public Bins bins(int numBins) {
+        flushPending();
+        numBins = Math.max(1, numBins);
+        double[] edges = new double[numBins + 1];
+        long[] counts = new long[numBins];
+        if (count == 0) {
+            return new Bins(edges, counts);
+        }
+        double span = max - min;
+        for (int i = 0; i <= numBins; i++) {
+            edges[i] = i == numBins ? max : min + span * i / numBins;
+        }
+        for (int f = 0; f < FINE_BINS; f++) {
+            if (fine[f] > 0) {
+                double center = Math.min(Math.max(lower + (f + 0.5) * width, min), max);
+                int bin = span > 0 ? (int) ((center - min) / span * numBins) : 0;
+                counts[Math.min(bin, numBins - 1)] += fine[f];
+            }
+        }
+        return new Bins(edges, counts);
+    }
+
+    /**
+     * Bin count from the Freedman-Diaconis rule, falling back to Sturges'
+     * rule when the interquartile range is zero.
+     */
+    public int suggestedBins() {
+        if (count < 2 || max <= min) {
+            return 1;
+        }
+        flushPending();
+        double iqr = quantile(0.75) - quantile(0.25);
+        int bins;
+        if (iqr > 0) {
+            double binWidth = 2 * iqr / Math.cbrt(count);
+            bins = (int) Math.ceil((max - min) / binWidth);
+        } else {
+            bins = (int) Math.ceil(Math.log(count) / Math.log(2)) + 1;
+        }
+        return Math.max(1, Math.min(MAX_SUGGESTED_BINS, bins));
+    }
+
+    /** Approximate quantile, accurate to one fine bin. */
+    public double quantile(double q) {
+        flushPending();
+        long target = (long) Math.ceil(q * count);
+        long cumulative = 0;
+        for (int f = 0; f < FINE_BINS; f++) {
+            cumulative += fine[f];
+            if (cumulative >= target && fine[f] > 0) {
+                return Math.min(Math.max(lower + (f + 0.5) * width, min), max);
+            }
+        }
+        return max;
+    }
+
+    private void flushPending() {
+        if (initialized || pendingCount == 0) {
+            return;
+        }
+        double span = max - min;
+        lower = min;
+        width = (span > 0 ? span : Math.max(Math.abs(min), 1)) / FINE_BINS;
+        initialized = true;
+        for (int i = 0; i < pendingCount; i++) {
+            addToFine(pending[i]);
+        }
+        pendingCount = 0;
+    }
+
+    private void addToFine(double value) {
+        while (value < lower) {
+            // Double the range to the left: the old bins merge pairwise into the upper half.
+            for (int k = FINE_BINS / 2 - 1; k >= 0; k--) {
+                fine[FINE_BINS / 2 + k] = fine[2 * k] + fine[2 * k + 1];
+            }
+            Arrays.fill(fine, 0, FINE_BINS / 2, 0);
+            lower -= width * FINE_BINS;
+            width *= 2;
+        }
+        while (value > lower + width * FINE_BINS) {
+            for (int k = 0; k < FINE_BINS / 2; k++) {
+                fine[k] = fine[2 * k] + fine[2 * k + 1];
+            }
+            Arrays.fill(fine, FINE_BINS / 2, FINE_BINS, 0);
+            width *= 2;
+        }
+        fine[Math.min((int) ((value - lower) / width), FINE_BINS - 1)]++;
+    }
+}
@@ -0,0 +1,143 @@
+package com.yourcompany.app;
+
+import javax.swing.table.TableModel;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a result table as aligned text, CSV or JSON. The JSON form is one
+ * object per table, {@code {"title": ..., "columns": [...], "rows": [[...], ...]}},
+ * with every cell as a string.
+ */
+public final class TableWriter {
+    public enum Format { TEXT, CSV, JSON }
+
+    private TableWriter() {
+    }
+
+    public static void write(String title, TableModel table, Format format, Writer out) throws IOException {
+        switch (format) {
+            case CSV:
+                writeCsv(table, out);
+                break;
+            case JSON:
+                writeJson(title, table, out);
+                break;
+            default:
+                writeText(title, table, out);
+        }
+    }
+
+    private static void writeText(String title, TableModel table, Writer out) throws IOException {
+        int columns = table.getColumnCount();
+        int[] widths = new int[columns];
+        for (int c = 0; c < columns; c++) {
+            widths[c] = table.getColumnName(c).length();
+            for (int r = 0; r < table.getRowCount(); r++) {
+                widths[c] = Math.max(widths[c], cell(table, r, c).length());
+            }
+        }
+        if (title != null) {
+            out.write(title);
+            out.write('\n');
+        }
+        StringBuilder line = new StringBuilder();
+        for (int r = -1; r < table.getRowCount(); r++) {
+            line.setLength(0);
+            for (int c = 0; c < columns; c++) {
+                String value = r < 0 ? table.getColumnName(c) : cell(table, r, c);
+                line.append(value);
+                if (c < columns - 1) {
+                    for (int pad = value.length(); pad < widths[c] + 2; pad++) {
+                        line.append(' ');
+                    }
+                }
+            }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    private static void writeCsv(TableModel table, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int r = -1; r < table.getRowCount(); r++) {
+            line.setLength(0);
+            for (int c = 0; c < table.getColumnCount(); c++) {
+                if (c > 0) {
+                    line.append(',');
+                }
+                String value = r < 0 ? table.getColumnName(c) : cell(table, r, c);
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                    line.append('"').append(value.replace("\"", "\"\"")).append('"');
+                } else {
+                    line.append(value);
+                }
+            }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    private static void writeJson(String title, TableModel table, Writer out) throws IOException {
+        StringBuilder json = new StringBuilder("{\"title\":");
+        appendString(json, title);
+        json.append(",\"columns\":[");
+        for (int c = 0; c < table.getColumnCount(); c++) {
+            if (c > 0) {
+                json.append(',');
+            }
+            appendString(json, table.getColumnName(c));
+        }
+        json.append("],\"rows\":[");
+        for (int r = 0; r < table.getRowCount(); r++) {
+            json.append(r > 0 ? ",[" : "[");
+            for (int c = 0; c < table.getColumnCount(); c++) {
+                if (c > 0) {
+                    json.append(',');
+                }
+                appendString(json, cell(table, r, c));
+            }
+            json.append(']');
+        }
+        out.write(json.append("]}\n").toString());
+    }
+
+    /** Appends {@code value} as a quoted JSON string, or {@code null}. */
+    static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        json.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        json.append(ch);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String cell(TableModel table, int row, int column) {
+        Object value = table.getValueAt(row, column);
+        return value == null ? "" : value.toString();
+    }
+}
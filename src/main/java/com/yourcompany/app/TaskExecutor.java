@@ -0,0 +1,165 @@
+package com.yourcompany.app;
+
+import javax.swing.SwingUtilities;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs long Weka jobs on a bounded pool of background threads so that the
+ * Swing event dispatch thread stays responsive. Progress messages, partial
+ * results and completion callbacks are all delivered back on the EDT.
+ * <p>
+ * Cancelling interrupts a task, but Weka's loaders, classifiers and
+ * evaluation do not check for interrupts, so a task stops only at its next
+ * {@link Progress#checkCancelled()}. Until then it still counts as running,
+ * and the UI is told when it has actually stopped.
+ */
+public class TaskExecutor {
+    private static final int MAX_CONCURRENT_TASKS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final ExecutorService executor;
+    private final Consumer<String> messageSink;
+    private final Set<Future<?>> running = ConcurrentHashMap.newKeySet();
+    private IntConsumer runningCountListener = count -> {
+    };
+
+    @FunctionalInterface
+    public interface Task<T> {
+        T call(Progress progress) throws Exception;
+    }
+
+    /** Handed to a running task to report back to the UI. */
+    public static final class Progress {
+        private final Consumer<String> messageSink;
+
+        private Progress(Consumer<String> messageSink) {
+            this.messageSink = messageSink;
+        }
+
+        public void report(String message) {
+            SwingUtilities.invokeLater(() -> messageSink.accept(message));
+        }
+
+        /** Runs a UI update with a partial result on the EDT. */
+        public void publish(Runnable uiUpdate) {
+            SwingUtilities.invokeLater(uiUpdate);
+        }
+
+        public void checkCancelled() throws InterruptedException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    public TaskExecutor(Consumer<String> messageSink) {
+        this.messageSink = messageSink;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(MAX_CONCURRENT_TASKS, r -> {
+            Thread thread = new Thread(r, "weka-task-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Called on the EDT whenever the number of running tasks changes. */
+    public void setRunningCountListener(IntConsumer listener) {
+        this.runningCountListener = listener;
+    }
+
+    public <T> Future<T> submit(String name, Task<T> task, Consumer<? super T> onSuccess) {
+        return submit(name, task, onSuccess, () -> {
+        });
+    }
+
+    /**
+     * Like {@link #submit(String, Task, Consumer)}, then runs
+     * {@code onCompletion} on the EDT whether the task succeeded, failed or
+     * was cancelled, for callers that wait on several tasks.
+     */
+    public <T> Future<T> submit(String name, Task<T> task, Consumer<? super T> onSuccess, Runnable onCompletion) {
+        Progress progress = new Progress(messageSink);
+        FutureTask<T> future = new FutureTask<T>(() -> task.call(progress)) {
+            private volatile boolean started;
+
+            @Override
+            public void run() {
+                started = true;
+                try {
+                    super.run();
+                } finally {
+                    if (isCancelled() && running.remove(this)) {
+                        SwingUtilities.invokeLater(() -> {
+                            messageSink.accept(name + " stopped.");
+                            runningCountListener.accept(running.size());
+                        });
+                    }
+                }
+            }
+
+            @Override
+            protected void done() {
+                // A cancelled task that already started keeps its thread until it reaches a check.
+                boolean stillRunning = isCancelled() && started;
+                if (!stillRunning) {
+                    running.remove(this);
+                }
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = get();
+                } catch (CancellationException | InterruptedException e) {
+                    failure = e;
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                }
+                T value = result;
+                Throwable error = failure;
+                SwingUtilities.invokeLater(() -> {
+                    if (error == null) {
+                        onSuccess.accept(value);
+                    } else if (stillRunning) {
+                        messageSink.accept("Cancel requested; " + name
+                                + " stops when its current step finishes.");
+                    } else if (error instanceof CancellationException || error instanceof InterruptedException) {
+                        messageSink.accept(name + " cancelled.");
+                    } else {
+                        messageSink.accept(name + " failed: " + error.getMessage());
+                        error.printStackTrace();
+                    }
+                    onCompletion.run();
+                    runningCountListener.accept(running.size());
+                });
+            }
+        };
+        running.add(future);
+        runningCountListener.accept(running.size());
+        executor.execute(future);
+        return future;
+    }
+
+    /** Interrupts every running task; see the class comment for when they actually stop. */
+    public void cancelAll() {
+        for (Future<?> future : running) {
+            future.cancel(true);
+        }
+    }
+
+    public int runningCount() {
+        return running.size();
+    }
+
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+}
@@ -237,7 +237,7 @@ public class boo {
                 System.out.println("Standard Deviation: " + stats[3]);
             } else {
                 System.out.println("Type: Nominal");
-                System.out.println("Distinct Values: " + data.attributeStats(i).nominalCounts.length);
+                System.out.println("Distinct Values: " + ColumnStatsEngine.getStats(data, i).nominalCounts.length);
             }
         }
     }
@@ -274,11 +274,7 @@ public class boo {
 
     private static double[] calculateColumnStats(Instances data, int columnIndex) {
         if (data.attribute(columnIndex).isNumeric()) { // Check for numeric column
-            double min = data.attributeStats(columnIndex).numericStats.min;
-            double max = data.attributeStats(columnIndex).numericStats.max;
-            double mean = data.attributeStats(columnIndex).numericStats.mean;
-            double stdDev = data.attributeStats(columnIndex).numericStats.stdDev;
-            return new double[] { min, max, mean, stdDev };
+            return ColumnStatsEngine.getStats(data, columnIndex).toArray();
         } else {
             return null; // Indicate non-numeric column if needed
         }
@@ -383,18 +379,17 @@ public class boo {
                 newData.setClassIndex(newData.numAttributes() - 1);
             }
 
-            // Make predictions for the new dataset
+            // Make predictions and calculate evaluation metrics in the same pass,
+            // so each instance is classified only once
+            Evaluation eval = new Evaluation(data);
             System.out.println("Predictions for the new unlabelled dataset:");
             for (int i = 0; i < newData.numInstances(); i++) {
-                double predictedClass = j48Classifier.classifyInstance(newData.instance(i));
+                double[] distribution = j48Classifier.distributionForInstance(newData.instance(i));
+                double predictedClass = eval.evaluateModelOnceAndRecordPrediction(distribution, newData.instance(i));
                 System.out.println("Instance " + (i + 1) + ": Predicted class - "
                         + data.classAttribute().value((int) predictedClass));
             }
 
-            // Calculate evaluation metrics
-            Evaluation eval = new Evaluation(data);
-            eval.evaluateModel(j48Classifier, newData);
-
             // Ask user if they want to see evaluation metrics
             System.out.print("Do you want to see evaluation metrics? (yes/no): ");
             String showEvaluation = scanner.next().toLowerCase();
@@ -0,0 +1,107 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+/**
+ * Exercises the HTTP contract and concurrent requests against localhost.
+ */
+public class AnalysisServerTest
+{
+    private final HttpClient client = HttpClient.newHttpClient();
+    private AnalysisServer server;
+    private Instances data;
+
+    @Before
+    public void startServer() throws Exception
+    {
+        data = ColumnStatsEngineTest.createDataset(300, 17);
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+        Map<String, Instances> datasets = new LinkedHashMap<>();
+        datasets.put("train", data);
+        datasets.put("other", ColumnStatsEngineTest.createDataset(100, 18));
+        server = new AnalysisServer(datasets, j48, 2, 500);
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @After
+    public void stopServer()
+    {
+        server.stop();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception
+    {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void answersEachEndpoint() throws Exception
+    {
+        HttpResponse<String> stats = post("/stats", "{}");
+        assertEquals(200, stats.statusCode());
+        assertTrue(stats.body().startsWith("{\"title\":\"Statistics for"));
+
+        HttpResponse<String> compare = post("/compare-columns", "{\"columns\": [\"petal\", 0]}");
+        assertEquals(200, compare.statusCode());
+        String mean = String.valueOf(ColumnStatsEngine.getStats(data, 1).mean);
+        assertTrue(compare.body().contains("[\"Mean\",\"" + mean + "\","));
+
+        String label = data.classAttribute().value(0);
+        HttpResponse<String> predict = post("/predict", "{\"rows\": [{\"petal\": 1.5}, {}]}");
+        assertEquals(200, predict.statusCode());
+        assertTrue(predict.body().contains("\"P(" + label + ")\""));
+        assertTrue(predict.body().contains("[\"1\",\""));
+
+        HttpResponse<String> datasets = post("/compare-datasets", "{}");
+        assertEquals(200, datasets.statusCode());
+        assertTrue(datasets.body().contains("\"other\""));
+
+        assertEquals(400, post("/compare-columns", "{\"columns\": [\"nope\", 1]}").statusCode());
+        assertEquals(400, post("/stats", "{\"dataset\": ").statusCode());
+        assertEquals(404, post("/unknown", "{}").statusCode());
+    }
+
+    @Test
+    public void queuesConcurrentRequests() throws Exception
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String path = i % 2 == 0 ? "/stats" : "/predict";
+                String body = i % 2 == 0 ? "{}" : "{\"rows\": [{\"petal\": " + (i % 7) + "}]}";
+                statuses.add(pool.submit(() -> post(path, body).statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, (int) status.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
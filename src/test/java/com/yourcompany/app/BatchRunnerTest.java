@@ -0,0 +1,78 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Runs the headless commands against small CSV files.
+ */
+public class BatchRunnerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File csv(String name, String content) throws IOException
+    {
+        File file = folder.newFile(name);
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    @Test
+    public void runsScriptAndPrintsJson() throws Exception
+    {
+        File iris = csv("iris.csv", "sepal,petal,species\n5.1,1.4,setosa\n4.9,1.3,setosa\n"
+                + "6.4,4.5,versicolor\n6.9,4.9,versicolor\n6.3,6.0,virginica\n7.1,5.9,virginica\n");
+        File other = csv("other.csv", "petal,sepal\n1.0,4.0\n3.0,6.0\n");
+        File chart = new File(folder.getRoot(), "petal.png");
+        File predictions = new File(folder.getRoot(), "predictions.csv");
+        File script = csv("script.txt", "# nightly report\n"
+                + "load \"" + iris.getPath() + "\"\n"
+                + "\n"
+                + "compare sepal 1\n"
+                + "compare-datasets " + iris.getPath() + " " + other.getPath() + "\n"
+                + "visualize histogram petal " + chart.getPath() + " 4\n"
+                + "predict " + iris.getPath() + " " + predictions.getPath() + "\n");
+
+        StringWriter out = new StringWriter();
+        BatchRunner runner = new BatchRunner(out, TableWriter.Format.JSON,
+                new ModelStore(folder.newFolder("models"), ModelStore.DEFAULT_MAX_BYTES));
+        runner.runScript(script);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("{\"title\":\"Column comparison\",\"columns\":[\"Statistic\",\"sepal\",\"petal\"],"
+                + "\"rows\":[[\"Minimum\",\"4.9\",\"1.3\"],[\"Maximum\",\"7.1\",\"6.0\"],"));
+        assertTrue(lines[1].contains("[\"sepal\",\"other.csv\",\"4.0\",\"6.0\",\"5.0\","));
+        assertTrue(lines[1].contains("[\"petal\",\"iris.csv\","));
+        assertTrue(lines[2].contains("\"rows\":[[\"" + chart.getPath() + "\",\"6\"]]"));
+        assertTrue(chart.length() > 0);
+        assertTrue(lines[3].contains("[\"setosa\",\"2\"]"));
+        assertTrue(lines[4].startsWith("{\"title\":\"Evaluation\""));
+        assertTrue(predictions.length() > 0);
+    }
+
+    @Test
+    public void writesCsvAndQuotesScriptTokens() throws Exception
+    {
+        StringWriter out = new StringWriter();
+        TableWriter.write("ignored", LazyTableModel.of(new String[][] { { "a,b", "say \"hi\"" } },
+                new String[] { "x", "y" }), TableWriter.Format.CSV, out);
+        assertEquals("x,y\n\"a,b\",\"say \"\"hi\"\"\"\n", out.toString());
+
+        assertEquals(Arrays.asList("load", "my data.csv", "x"), BatchRunner.tokenize("  load \"my data.csv\"  x "));
+    }
+}
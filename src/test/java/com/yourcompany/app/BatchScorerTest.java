@@ -0,0 +1,84 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+/**
+ * Checks that partitioned scoring matches serial J48 predictions.
+ */
+public class BatchScorerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesSamePredictionsAsSerialScoring() throws Exception
+    {
+        Instances train = ColumnStatsEngineTest.createDataset(2000, 3);
+        J48 j48 = new J48();
+        j48.buildClassifier(train);
+
+        File input = folder.newFile("new.csv");
+        try (PrintWriter writer = new PrintWriter(input, "UTF-8")) {
+            writer.println("sepal,petal,class");
+            for (int i = 0; i < 1234; i++) {
+                writer.println((5 + i % 13) + "," + (i % 101) + ",?");
+            }
+        }
+        File output = folder.newFile("predictions.csv");
+
+        BatchScorer scorer = new BatchScorer(j48, train, 3);
+        scorer.setBatchSize(500);
+        BatchScorer.Summary summary;
+        try (StreamingCsvReader reader = new StreamingCsvReader(input, train)) {
+            summary = scorer.score(reader, output, (batch, distributions, rowsScored) -> {
+            });
+        }
+
+        assertEquals(1234, summary.rowsScored);
+        List<String> lines = Files.readAllLines(output.toPath());
+        assertEquals("instance,predicted", lines.get(0));
+        try (StreamingCsvReader reader = new StreamingCsvReader(input, train)) {
+            Instances all = reader.nextBatch(2000);
+            for (int i = 0; i < all.numInstances(); i++) {
+                String expected = train.classAttribute().value((int) j48.classifyInstance(all.instance(i)));
+                assertEquals((i + 1) + "," + expected, lines.get(i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void fusedEvaluationMatchesEvaluateModel() throws Exception
+    {
+        Instances train = ColumnStatsEngineTest.createDataset(3000, 4);
+        Instances test = ColumnStatsEngineTest.createDataset(1500, 5);
+        J48 j48 = new J48();
+        j48.buildClassifier(train);
+
+        Evaluation expected = new Evaluation(train);
+        expected.evaluateModel(j48, test);
+
+        BatchScorer scorer = new BatchScorer(j48, train, 4);
+        double[][] distributions = scorer.scoreBatch(test);
+        Evaluation fused = new Evaluation(train);
+        for (int i = 0; i < distributions.length; i++) {
+            fused.evaluateModelOnceAndRecordPrediction(distributions[i], test.instance(i));
+        }
+
+        assertEquals(expected.toSummaryString(), fused.toSummaryString());
+        assertEquals(expected.toMatrixString(), fused.toMatrixString());
+        assertEquals(expected.toClassDetailsString(), fused.toClassDetailsString());
+    }
+}
@@ -0,0 +1,93 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for the bounded chat transcript model.
+ */
+public class ChatTranscriptTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void spillsOldestEntriesOnceFull() throws Exception
+    {
+        File spill = new File(folder.getRoot(), "transcript.txt");
+        ChatTranscript transcript = new ChatTranscript(3, spill);
+        int[] size = new int[1];
+        transcript.addListDataListener(new ListDataListener()
+        {
+            public void intervalAdded(ListDataEvent e)
+            {
+                size[0] += e.getIndex1() - e.getIndex0() + 1;
+            }
+
+            public void intervalRemoved(ListDataEvent e)
+            {
+                size[0] -= e.getIndex1() - e.getIndex0() + 1;
+            }
+
+            public void contentsChanged(ListDataEvent e)
+            {
+            }
+        });
+
+        transcript.addMessage("hello", true);
+        transcript.addTable(LazyTableModel.of(new String[][] { { "a", "1" } }, new String[] { "Column", "Value" }));
+        ChatTranscript.Entry progress = transcript.addProgress("Scoring...");
+        assertEquals(3, transcript.getSize());
+        for (int i = 0; i < 5; i++) {
+            transcript.addMessage("reply " + i, false);
+        }
+
+        assertEquals(4, transcript.getSize());
+        assertEquals(transcript.getSize(), size[0]);
+        assertEquals(5, transcript.spilledCount());
+        assertEquals(ChatTranscript.Kind.NOTICE, transcript.getElementAt(0).getKind());
+        assertTrue(transcript.getElementAt(0).getText().startsWith("5 earlier messages saved to"));
+        assertEquals("reply 4", transcript.getElementAt(3).getText());
+
+        transcript.setProgress(progress, 50);
+        transcript.close();
+        List<String> lines = Files.readAllLines(spill.toPath());
+        assertEquals("You: hello", lines.get(0));
+        assertEquals("Column\tValue", lines.get(1));
+        assertEquals("a\t1", lines.get(2));
+        assertEquals("Bot: Scoring... (0%)", lines.get(3));
+        assertEquals("Bot: reply 1", lines.get(5));
+    }
+
+    @Test
+    public void spillsOnlyAPreviewOfLargeTables() throws Exception
+    {
+        File spill = new File(folder.getRoot(), "tables.txt");
+        ChatTranscript transcript = new ChatTranscript(1, spill);
+        int[] formatted = new int[1];
+        transcript.addTable(new LazyTableModel(new String[] { "Row" }, 1_000_000, (row, column) -> {
+            formatted[0]++;
+            return "r" + row;
+        }));
+        transcript.addMessage("next", false);
+        transcript.close();
+
+        assertEquals(ChatTranscript.SPILLED_TABLE_ROWS, formatted[0]);
+        List<String> lines = Files.readAllLines(spill.toPath());
+        assertEquals(ChatTranscript.SPILLED_TABLE_ROWS + 2, lines.size());
+        assertEquals("r0", lines.get(1));
+        assertEquals("... " + (1_000_000 - ChatTranscript.SPILLED_TABLE_ROWS) + " more rows",
+                lines.get(lines.size() - 1));
+    }
+}
@@ -0,0 +1,68 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * Checks the single-pass statistics against Weka's attributeStats.
+ */
+public class ColumnStatsEngineTest
+{
+    static Instances createDataset(int numRows, long seed)
+    {
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        attributes.add(new Attribute("sepal"));
+        attributes.add(new Attribute("petal"));
+        attributes.add(new Attribute("class", Arrays.asList("a", "b", "c")));
+        Instances data = new Instances("test", attributes, numRows);
+        Random random = new Random(seed);
+        for (int i = 0; i < numRows; i++) {
+            double[] values = { random.nextGaussian() * 3 + 10, random.nextDouble() * 100, random.nextInt(3) };
+            if (i % 17 == 0) {
+                values[1] = Utils.missingValue();
+            }
+            data.add(new DenseInstance(1.0, values));
+        }
+        data.setClassIndex(2);
+        return data;
+    }
+
+    @Test
+    public void matchesAttributeStats()
+    {
+        Instances data = createDataset(50000, 1);
+        ColumnStatsEngine.ColumnStats[] stats = ColumnStatsEngine.compute(data);
+        for (int c = 0; c < 2; c++) {
+            weka.experiment.Stats expected = data.attributeStats(c).numericStats;
+            assertEquals(expected.min, stats[c].min, 0);
+            assertEquals(expected.max, stats[c].max, 0);
+            assertEquals(expected.mean, stats[c].mean, 1e-9);
+            assertEquals(expected.stdDev, stats[c].stdDev, 1e-9);
+            assertEquals(data.attributeStats(c).missingCount, stats[c].missingCount);
+        }
+        assertArrayEquals(data.attributeStats(2).nominalCounts, stats[2].nominalCounts);
+    }
+
+    @Test
+    public void cachesUntilDatasetChanges()
+    {
+        Instances data = createDataset(100, 2);
+        ColumnStatsEngine.ColumnStats[] first = ColumnStatsEngine.getStats(data);
+        assertSame(first, ColumnStatsEngine.getStats(data));
+
+        data.add(new DenseInstance(1.0, new double[] { 1000, 1, 0 }));
+        assertEquals(1000, ColumnStatsEngine.getStats(data, 0).max, 0);
+    }
+}
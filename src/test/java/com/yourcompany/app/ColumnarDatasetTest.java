@@ -0,0 +1,65 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Checks the columnar adapter against the same data held row by row.
+ */
+public class ColumnarDatasetTest
+{
+    @Test
+    public void adapterBehavesLikeRowData() throws Exception
+    {
+        Instances rows = ColumnStatsEngineTest.createDataset(40000, 5);
+        Instances columns = ColumnarDataset.of(rows).asInstances();
+        assertEquals(2, columns.classIndex());
+
+        ColumnStatsEngine.ColumnStats[] expected = new ColumnStatsEngine.Accumulator(rows).add(rows).finish();
+        ColumnStatsEngine.ColumnStats[] actual = ColumnStatsEngine.compute(columns);
+        for (int c = 0; c < rows.numAttributes(); c++) {
+            assertArrayEquals(expected[c].toArray(), actual[c].toArray(), 1e-9);
+            assertEquals(expected[c].missingCount, actual[c].missingCount);
+        }
+        assertArrayEquals(expected[2].nominalCounts, actual[2].nominalCounts);
+        assertArrayEquals(rows.attributeToDoubleArray(1), ColumnarDataset.attributeToDoubleArray(columns, 1), 0);
+
+        J48 fromRows = new J48();
+        fromRows.buildClassifier(rows);
+        J48 fromColumns = new J48();
+        fromColumns.buildClassifier(columns);
+        assertEquals(fromRows.toString(), fromColumns.toString());
+        Evaluation evaluation = new Evaluation(columns);
+        evaluation.evaluateModel(fromColumns, columns);
+        assertEquals(fromRows.toString(), fromColumns.toString());
+        assertEquals(rows.instance(17).toString(), columns.instance(17).toString());
+    }
+
+    @Test
+    public void modifiedRowsAreCopiedAndStopColumnScans()
+    {
+        Instances columns = ColumnarDataset.of(ColumnStatsEngineTest.createDataset(100, 2)).asInstances();
+        assertNotNull(ColumnarDataset.backing(columns));
+
+        Instance copy = (Instance) columns.instance(3).copy();
+        copy.setValue(0, 42);
+        assertEquals(42, copy.value(0), 0);
+        assertNotNull(ColumnarDataset.backing(columns));
+
+        double before = columns.instance(4).value(0);
+        columns.instance(4).setValue(0, before + 1);
+        assertEquals(before + 1, columns.instance(4).value(0), 0);
+        assertNull(ColumnarDataset.backing(columns));
+        assertEquals(ColumnStatsEngine.compute(columns)[0].max,
+                new ColumnStatsEngine.Accumulator(columns).add(columns).finish()[0].max, 0);
+    }
+}
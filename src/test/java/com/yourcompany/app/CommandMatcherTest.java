@@ -0,0 +1,85 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the BK-tree lookup against a linear scan.
+ */
+public class CommandMatcherTest
+{
+    private static int fullDistance(String a, String b)
+    {
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0) {
+                    dp[i][j] = j;
+                } else if (j == 0) {
+                    dp[i][j] = i;
+                } else {
+                    dp[i][j] = Math.min(dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                            Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1));
+                }
+            }
+        }
+        return dp[a.length()][b.length()];
+    }
+
+    private static String randomWord(Random random, int maxLength)
+    {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(maxLength);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+
+    @Test
+    public void matchesLinearScan()
+    {
+        Random random = new Random(11);
+        List<String> terms = new ArrayList<>();
+        CommandMatcher matcher = new CommandMatcher(3);
+        for (int i = 0; i < 500; i++) {
+            String term = randomWord(random, 12);
+            terms.add(term);
+            matcher.add(term, "command-" + i);
+        }
+        for (int q = 0; q < 2000; q++) {
+            String input = randomWord(random, 14);
+            int minDistance = Integer.MAX_VALUE;
+            String expected = null;
+            for (int i = 0; i < terms.size(); i++) {
+                int distance = fullDistance(input, terms.get(i));
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    expected = "command-" + terms.indexOf(terms.get(i));
+                }
+            }
+            assertEquals(input, minDistance <= 3 ? expected : null, matcher.closest(input));
+        }
+    }
+
+    @Test
+    public void resolvesAliasesAndRejectsDistantInput()
+    {
+        CommandMatcher matcher = new CommandMatcher(new String[] { "predict", "compare datasets" }, 3);
+        matcher.add("classify", "predict");
+        assertEquals("predict", matcher.closest("clasify"));
+        assertEquals("predict", matcher.closest("predcit"));
+        assertEquals("compare datasets", matcher.closest("compare dataset"));
+        assertNull(matcher.closest("hello world"));
+        assertEquals(3, matcher.size());
+        assertTrue(matcher.distance("kitten", "sitting", 2) > 2);
+        assertEquals(3, matcher.distance("kitten", "sitting", 10));
+    }
+}
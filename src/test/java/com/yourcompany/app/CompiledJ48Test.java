@@ -0,0 +1,62 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.classifiers.trees.J48;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+
+/**
+ * Checks that the flattened tree reproduces J48 exactly.
+ */
+public class CompiledJ48Test
+{
+    private static void assertSameAsJ48(J48 j48, Instances test) throws Exception
+    {
+        CompiledJ48 compiled = CompiledJ48.compile(j48);
+        for (Instance instance : test) {
+            assertEquals(j48.classifyInstance(instance), compiled.classifyInstance(instance), 0);
+            assertArrayEquals(j48.distributionForInstance(instance), compiled.distributionForInstance(instance), 0);
+        }
+    }
+
+    @Test
+    public void matchesJ48OnNumericData() throws Exception
+    {
+        J48 j48 = new J48();
+        j48.buildClassifier(ColumnStatsEngineTest.createDataset(3000, 8));
+        assertSameAsJ48(j48, ColumnStatsEngineTest.createDataset(2000, 9));
+    }
+
+    @Test
+    public void matchesJ48OnNominalDataWithMissingValues() throws Exception
+    {
+        Instances data = new DataSource(getClass().getResourceAsStream("/weka/gui/beans/templates/credit-g.arff"))
+                .getDataSet();
+        data.setClassIndex(data.numAttributes() - 1);
+        Instances test = new Instances(data);
+        Random random = new Random(10);
+        for (Instance instance : test) {
+            for (int a = 0; a < test.numAttributes() - 1; a++) {
+                if (random.nextInt(8) == 0) {
+                    instance.setMissing(a);
+                }
+            }
+        }
+
+        for (String options : new String[] { "", "-B", "-U", "-B -U -M 1" }) {
+            J48 j48 = new J48();
+            j48.setOptions(Utils.splitOptions(options));
+            j48.buildClassifier(data);
+            assertSameAsJ48(j48, data);
+            assertSameAsJ48(j48, test);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * Checks the blocked correlation kernel against a pair-by-pair computation.
+ */
+public class CorrelationMatrixTest
+{
+    @Test
+    public void matchesPairwiseComputation() throws Exception
+    {
+        int numColumns = 7;
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        for (int c = 0; c < numColumns; c++) {
+            attributes.add(new Attribute("x" + c));
+        }
+        Instances data = new Instances("test", attributes, 40000);
+        Random random = new Random(4);
+        for (int r = 0; r < 40000; r++) {
+            double base = random.nextGaussian();
+            double[] values = new double[numColumns];
+            for (int c = 0; c < numColumns; c++) {
+                values[c] = 1000 + base * c + random.nextGaussian();
+            }
+            values[2] = Math.floor(values[2] / 3);
+            if (r % 9 == 0) {
+                values[5] = Utils.missingValue();
+            }
+            data.add(new DenseInstance(1, values));
+        }
+
+        for (Instances dataset : new Instances[] { data, ColumnarDataset.of(data).asInstances() }) {
+            CorrelationMatrix.Result result = CorrelationMatrix.compute(dataset);
+            for (int i = 0; i < numColumns; i++) {
+                for (int j = 0; j < numColumns; j++) {
+                    double[] x = data.attributeToDoubleArray(i);
+                    double[] y = data.attributeToDoubleArray(j);
+                    double[] expected = pearson(x, y);
+                    assertEquals(expected[0], result.pearson[i][j], 1e-9);
+                    assertEquals(expected[1], result.covariance[i][j], 1e-6);
+                    assertEquals((long) expected[2], result.counts[i][j]);
+                    if (i != 5 && j != 5) {
+                        assertEquals(pearson(CorrelationMatrix.ranks(x), CorrelationMatrix.ranks(y))[0],
+                                result.spearman[i][j], 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ranksTiesByAverage()
+    {
+        assertArrayEquals(new double[] { 2.5, 1, 2.5, Double.NaN, 4 },
+                CorrelationMatrix.ranks(new double[] { 5, 1, 5, Double.NaN, 9 }), 0);
+    }
+
+    /** {correlation, covariance, count} over the rows where both are present. */
+    private static double[] pearson(double[] x, double[] y)
+    {
+        double sx = 0;
+        double sy = 0;
+        int n = 0;
+        for (int r = 0; r < x.length; r++) {
+            if (!Double.isNaN(x[r]) && !Double.isNaN(y[r])) {
+                sx += x[r];
+                sy += y[r];
+                n++;
+            }
+        }
+        double mx = sx / n;
+        double my = sy / n;
+        double cxy = 0;
+        double cxx = 0;
+        double cyy = 0;
+        for (int r = 0; r < x.length; r++) {
+            if (!Double.isNaN(x[r]) && !Double.isNaN(y[r])) {
+                cxy += (x[r] - mx) * (y[r] - my);
+                cxx += (x[r] - mx) * (x[r] - mx);
+                cyy += (y[r] - my) * (y[r] - my);
+            }
+        }
+        return new double[] { cxy / Math.sqrt(cxx * cyy), cxy / (n - 1), n };
+    }
+}
@@ -0,0 +1,34 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+/**
+ * Checks that parallel cross-validation reports what Weka's sequential one does.
+ */
+public class CrossValidatorTest
+{
+    @Test
+    public void matchesSequentialCrossValidation() throws Exception
+    {
+        Instances data = new DataSource(getClass().getResourceAsStream("/weka/gui/beans/templates/credit-g.arff"))
+                .getDataSet();
+        data.setClassIndex(data.numAttributes() - 1);
+
+        Evaluation sequential = new Evaluation(data);
+        sequential.crossValidateModel(new J48(), data, 10, new Random(3));
+        Evaluation parallel = CrossValidator.crossValidate(new J48(), data, 10, 3);
+
+        assertEquals(sequential.toSummaryString(), parallel.toSummaryString());
+        assertEquals(sequential.toMatrixString(), parallel.toMatrixString());
+        assertEquals(sequential.toClassDetailsString(), parallel.toClassDetailsString());
+    }
+}
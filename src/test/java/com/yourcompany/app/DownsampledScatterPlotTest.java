@@ -0,0 +1,54 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.jfree.data.Range;
+import org.junit.Test;
+
+/**
+ * Checks the grid sample used by the scatter plot.
+ */
+public class DownsampledScatterPlotTest
+{
+    @Test
+    public void keepsOnePointPerOccupiedCellInRange()
+    {
+        Random random = new Random(13);
+        int n = 500_000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextGaussian();
+            ys[i] = random.nextGaussian();
+        }
+        Range xRange = new Range(-1, 1);
+        Range yRange = new Range(0, 2);
+        double[][] sample = DownsampledScatterPlot.sample(xs, ys, xRange, yRange, 100, 50);
+
+        Set<Integer> expectedCells = new HashSet<>();
+        for (int i = 0; i < n; i++) {
+            if (xRange.contains(xs[i]) && yRange.contains(ys[i])) {
+                expectedCells.add(cell(xs[i], ys[i]));
+            }
+        }
+        Set<Integer> sampledCells = new HashSet<>();
+        for (int i = 0; i < sample[0].length; i++) {
+            assertTrue(xRange.contains(sample[0][i]) && yRange.contains(sample[1][i]));
+            assertTrue(sampledCells.add(cell(sample[0][i], sample[1][i])));
+        }
+        assertEquals(expectedCells, sampledCells);
+        assertTrue(sample[0].length <= 100 * 50);
+    }
+
+    private static int cell(double x, double y)
+    {
+        int column = Math.min((int) ((x + 1) * 50), 99);
+        int row = Math.min((int) (y * 25), 49);
+        return row * 100 + column;
+    }
+}
@@ -0,0 +1,123 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayesUpdateable;
+import weka.classifiers.trees.J48;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * Unit test for refreshing a model from rows appended to its training file.
+ */
+public class IncrementalTrainerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(File file, String content, boolean append) throws IOException
+    {
+        try (Writer writer = new FileWriter(file, append)) {
+            writer.write(content);
+        }
+    }
+
+    private static String rows(int count, String label, double base)
+    {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            rows.append(base + i % 5).append(',').append(label).append('\n');
+        }
+        return rows.toString();
+    }
+
+    @Test
+    public void retrainsOnAppendedRowsOnly() throws Exception
+    {
+        File file = folder.newFile("train.csv");
+        write(file, "x,label\n" + rows(20, "low", 1) + "\n" + rows(20, "high", 10), false);
+        Instances data = Analysis.load(file);
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+        IncrementalTrainer trainer = new IncrementalTrainer(file, data, j48, data.numInstances(), 100);
+        assertEquals(file.length(), trainer.offset());
+
+        assertEquals(0, trainer.refresh());
+        assertSame(j48, trainer.model());
+
+        // The last row is still being written and must wait for the next refresh.
+        write(file, rows(3, "high", 20) + "21.5,hi", true);
+        assertEquals(3, trainer.refresh());
+        Classifier refreshed = trainer.model();
+        assertNotSame(j48, refreshed);
+        assertTrue(refreshed instanceof J48);
+        assertEquals(43, trainer.rows());
+
+        write(file, "gh\n", true);
+        assertEquals(1, trainer.refresh());
+        assertEquals(44, trainer.rows());
+        assertEquals(file.length(), trainer.offset());
+
+        // A shorter file is taken as rewritten and read from the start.
+        write(file, "x,label\n" + rows(6, "low", 1), false);
+        assertEquals(6, trainer.refresh());
+        assertEquals(6, trainer.rows());
+
+        // So is a longer one with the same header whose consumed rows changed.
+        write(file, "x,label\n" + rows(9, "high", 10), false);
+        assertEquals(9, trainer.refresh());
+        assertEquals(9, trainer.rows());
+    }
+
+    @Test
+    public void seedsWindowFromFileTailWhenDataIsASample() throws Exception
+    {
+        File file = folder.newFile("train.csv");
+        write(file, "x,label\n" + rows(40, "low", 1) + rows(40, "high", 10), false);
+        Instances all = Analysis.load(file);
+        Instances sample = new Instances(all, 0, 10);
+        J48 j48 = new J48();
+        j48.buildClassifier(sample);
+        IncrementalTrainer trainer = new IncrementalTrainer(file, sample, j48, all.numInstances(), 40);
+
+        write(file, rows(1, "high", 12), true);
+        assertEquals(1, trainer.refresh());
+        Instance probe = (Instance) all.instance(0).copy();
+        assertEquals(all.classAttribute().indexOfValue("high"), (int) trainer.model().classifyInstance(probe));
+    }
+
+    @Test
+    public void updatesUpdateableClassifierInPlaceOfRetraining() throws Exception
+    {
+        File file = folder.newFile("train.csv");
+        write(file, "x,label\n" + rows(10, "low", 1) + rows(10, "high", 10), false);
+        Instances data = Analysis.load(file);
+        NaiveBayesUpdateable bayes = new NaiveBayesUpdateable();
+        bayes.buildClassifier(data);
+        IncrementalTrainer trainer = new IncrementalTrainer(file, data, bayes, data.numInstances(), 100);
+
+        write(file, rows(50, "low", 15), true);
+        assertEquals(50, trainer.refresh());
+        NaiveBayesUpdateable updated = (NaiveBayesUpdateable) trainer.model();
+        assertNotSame(bayes, updated);
+        Instance probe = (Instance) data.instance(0).copy();
+        probe.setValue(0, 17);
+        int low = data.classAttribute().indexOfValue("low");
+        int high = data.classAttribute().indexOfValue("high");
+        assertEquals(high, (int) bayes.classifyInstance(probe));
+        assertEquals(low, (int) updated.classifyInstance(probe));
+    }
+}
@@ -0,0 +1,75 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.classifiers.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+/**
+ * Checks the raced J48 option search and that the tuned model is reused.
+ */
+public class J48TunerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void ranksCandidatesLikeFullCrossValidation() throws Exception
+    {
+        Instances data = new DataSource(getClass().getResourceAsStream("/weka/gui/beans/templates/credit-g.arff"))
+                .getDataSet();
+        data.setClassIndex(data.numAttributes() - 1);
+        List<String[]> candidates = Arrays.asList(new String[] { "-C", "0.25", "-M", "2" },
+                new String[] { "-C", "0.1", "-M", "20", "-B" }, new String[] { "-U", "-M", "1" });
+
+        List<J48Tuner.Result> results = J48Tuner.search(data, candidates, 10, 1);
+
+        assertEquals(3, results.size());
+        J48Tuner.Result best = results.get(0);
+        assertFalse(best.cut);
+        assertEquals(10, best.folds);
+        J48 template = new J48();
+        template.setOptions(best.options.clone());
+        Evaluation sequential = CrossValidator.crossValidate(template, data, 10, 1);
+        assertEquals(sequential.pctCorrect(), best.accuracy(), 1e-9);
+        for (J48Tuner.Result result : results) {
+            assertTrue(result.cut || result.accuracy() <= best.accuracy());
+            assertEquals(result.cut ? J48Tuner.RACE_FOLDS : 10, result.folds);
+        }
+    }
+
+    @Test
+    public void tunedOptionsAreReusedOnLoad() throws Exception
+    {
+        File csv = folder.newFile("data.csv");
+        StringBuilder text = new StringBuilder("x,y,label\n");
+        for (int i = 0; i < 200; i++) {
+            text.append(i % 17).append(',').append(i % 5).append(',').append(i % 17 < 8 ? "a" : "b").append('\n');
+        }
+        Files.write(csv.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+        Instances data = Analysis.load(csv);
+        ModelStore store = new ModelStore(folder.newFolder("models"), ModelStore.DEFAULT_MAX_BYTES);
+
+        Analysis.Tuning tuning = Analysis.tuneJ48(store, csv, data, J48Tuner.random(6, 3), 5);
+        J48 loaded = Analysis.loadOrTrainJ48(store, csv, data);
+
+        assertArrayEquals(tuning.best.getOptions(), loaded.getOptions());
+        assertEquals(tuning.best.toString(), loaded.toString());
+        assertEquals(6, Analysis.tuningResults(tuning.results).getRowCount());
+    }
+}
@@ -0,0 +1,51 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import weka.core.Instances;
+
+/**
+ * Unit test for the on-demand table model.
+ */
+public class LazyTableModelTest
+{
+    @Test
+    public void formatsOnlyRequestedCellsOnce()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        LazyTableModel model = new LazyTableModel(new String[] { "a", "b" }, 10_000_000, (row, column) -> {
+            calls.incrementAndGet();
+            return row + ":" + column;
+        });
+
+        assertEquals(10_000_000, model.getRowCount());
+        assertEquals("9999999:1", model.getValueAt(9_999_999, 1));
+        assertEquals("9999999:1", model.getValueAt(9_999_999, 1));
+        assertEquals("5:0", model.getValueAt(5, 0));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void columnStatsMatchEngine()
+    {
+        Instances data = ColumnStatsEngineTest.createDataset(500, 12);
+        ColumnStatsEngine.ColumnStats[] stats = ColumnStatsEngine.getStats(data);
+        LazyTableModel model = LazyTableModel.forColumnStats(data, stats);
+
+        assertEquals(data.numAttributes(), model.getRowCount());
+        assertEquals("petal", model.getValueAt(1, 0));
+        assertEquals("Numeric", model.getValueAt(1, 1));
+        assertEquals(String.valueOf(stats[1].mean), model.getValueAt(1, 4));
+        assertEquals("Nominal", model.getValueAt(2, 1));
+        assertEquals("3", model.getValueAt(2, 5));
+
+        LazyTableModel rows = LazyTableModel.forInstances(data);
+        assertEquals(data.numAttributes() + 1, rows.getColumnCount());
+        assertEquals(data.instance(3).stringValue(2), rows.getValueAt(3, 3));
+        assertEquals("?", rows.getValueAt(0, 2));
+    }
+}
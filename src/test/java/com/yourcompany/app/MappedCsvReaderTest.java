@@ -0,0 +1,55 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.core.Instances;
+import weka.core.converters.CSVLoader;
+
+/**
+ * Checks the parallel mapped reader against Weka's CSVLoader.
+ */
+public class MappedCsvReaderTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void matchesCsvLoader() throws Exception
+    {
+        File file = folder.newFile("mixed.csv");
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("Id,Width,Code,Label");
+            for (int i = 0; i < 30000; i++) {
+                String width = i % 11 == 0 ? "?" : String.valueOf(-2.5 + (i % 97) * 0.125);
+                // A non-numeric code far past the type-inference sample forces a re-parse.
+                String code = i == 25000 ? "x9" : String.valueOf(i % 5);
+                writer.println(i + "," + width + "," + code + ",\"label " + (i % 4) + "\"");
+            }
+        }
+
+        Instances mapped = MappedCsvReader.read(file, 4);
+        CSVLoader loader = new CSVLoader();
+        loader.setSource(file);
+        Instances expected = loader.getDataSet();
+
+        assertEquals(expected.numInstances(), mapped.numInstances());
+        assertEquals(expected.numAttributes(), mapped.numAttributes());
+        assertTrue(mapped.attribute(1).isNumeric());
+        assertTrue(mapped.attribute(2).isNominal());
+        assertTrue(mapped.attribute(3).isNominal());
+        for (int r = 0; r < expected.numInstances(); r++) {
+            for (int c = 0; c < expected.numAttributes(); c++) {
+                assertEquals(expected.instance(r).toString(c), mapped.instance(r).toString(c));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+/**
+ * Unit test for the on-disk model cache.
+ */
+public class ModelStoreTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(File file, String content) throws IOException
+    {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+
+    @Test
+    public void reloadsModelUntilTrainingFileChanges() throws Exception
+    {
+        ModelStore store = new ModelStore(folder.newFolder("models"), ModelStore.DEFAULT_MAX_BYTES);
+        File training = folder.newFile("train.csv");
+        write(training, "a,b\n1,x\n2,y\n");
+        String[] options = new J48().getOptions();
+        String key = store.key(training, options);
+        assertNull(store.load(key));
+
+        Instances data = ColumnStatsEngineTest.createDataset(200, 6);
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+        store.save(key, training, j48);
+
+        Classifier loaded = store.load(key);
+        assertTrue(loaded instanceof J48);
+        assertEquals(j48.toString(), loaded.toString());
+        assertEquals(key, store.key(training, options));
+        assertNotEquals(key, store.key(training, new String[] { "-U" }));
+
+        write(training, "a,b\n1,x\n2,y\n3,z\n");
+        String newKey = store.key(training, options);
+        assertNotEquals(key, newKey);
+        store.save(newKey, training, j48);
+        assertNull(store.load(key));
+        assertTrue(store.load(newKey) instanceof J48);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedModelsOverSizeCap() throws Exception
+    {
+        File directory = folder.newFolder("small");
+        ModelStore store = new ModelStore(directory, 1);
+        Instances data = ColumnStatsEngineTest.createDataset(200, 7);
+        J48 j48 = new J48();
+        j48.buildClassifier(data);
+
+        File first = folder.newFile("first.csv");
+        write(first, "1");
+        File second = folder.newFile("second.csv");
+        write(second, "2");
+        String firstKey = store.key(first, new String[0]);
+        store.save(firstKey, first, j48);
+        new File(directory, firstKey + ".model").setLastModified(System.currentTimeMillis() - 60000);
+        String secondKey = store.key(second, new String[0]);
+        store.save(secondKey, second, j48);
+
+        assertFalse(new File(directory, firstKey + ".model").exists());
+        assertTrue(new File(directory, secondKey + ".model").exists());
+    }
+}
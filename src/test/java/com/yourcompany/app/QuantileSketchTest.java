@@ -0,0 +1,143 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.core.Instances;
+
+/**
+ * Checks the quantile and distinct-count sketches against exact answers,
+ * alone, merged and as part of the column statistics.
+ */
+public class QuantileSketchTest
+{
+    private static final double RANK_ERROR = 0.02;
+
+    @Test
+    public void quantilesStayWithinRankError()
+    {
+        Random random = new Random(3);
+        double[] values = new double[200000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 5 + 20;
+            sketch.add(values[i]);
+        }
+        assertQuantiles(values, sketch);
+        assertEquals(values.length, sketch.count());
+        assertTrue(sketch.retained() < 4 * QuantileSketch.DEFAULT_K);
+    }
+
+    @Test
+    public void mergedSketchesMatchOneSketch()
+    {
+        Random random = new Random(4);
+        double[] values = new double[100000];
+        QuantileSketch merged = new QuantileSketch();
+        DistinctCountSketch distinct = new DistinctCountSketch();
+        for (int part = 0; part < 10; part++) {
+            QuantileSketch sketch = new QuantileSketch();
+            DistinctCountSketch partDistinct = new DistinctCountSketch();
+            for (int i = part * 10000; i < (part + 1) * 10000; i++) {
+                values[i] = part * 3 + random.nextDouble() * 40;
+                sketch.add(values[i]);
+                partDistinct.add(Math.floor(values[i] * 100));
+            }
+            merged.merge(sketch);
+            distinct.merge(partDistinct);
+        }
+        assertQuantiles(values, merged);
+        assertEquals(values.length, merged.count());
+
+        long exact = Arrays.stream(values).map(v -> Math.floor(v * 100)).distinct().count();
+        assertEquals(exact, distinct.estimate(), exact * 0.05);
+    }
+
+    @Test
+    public void smallDistinctCountsAreExact()
+    {
+        DistinctCountSketch sketch = new DistinctCountSketch();
+        for (int i = 0; i < 10000; i++) {
+            sketch.add(i % 37);
+        }
+        sketch.add(-0.0);
+        sketch.add(Double.NaN);
+        assertEquals(37, sketch.estimate());
+    }
+
+    @Test
+    public void columnStatsCarrySketches()
+    {
+        Instances data = ColumnStatsEngineTest.createDataset(50000, 5);
+        ColumnStatsEngine.ColumnStats[] rows = new ColumnStatsEngine.Accumulator(data, true).add(data).finish();
+        ColumnStatsEngine.ColumnStats[] columns = ColumnStatsEngine.compute(ColumnarDataset.of(data), true);
+        double[] petal = Arrays.stream(data.attributeToDoubleArray(1)).filter(v -> !Double.isNaN(v)).toArray();
+        for (ColumnStatsEngine.ColumnStats[] stats : Arrays.asList(rows, columns)) {
+            assertQuantiles(petal, stats[1].quantiles);
+            assertEquals(petal.length, stats[1].distinctCount(), petal.length * 0.05);
+            assertEquals(3, stats[2].distinctCount());
+            assertTrue(Double.isNaN(stats[2].quantile(0.5)));
+        }
+
+        Instances other = ColumnStatsEngineTest.createDataset(30000, 6);
+        ColumnStatsEngine.ColumnStats combined = ColumnStatsEngine.combine(
+                Arrays.asList(columns[0], ColumnStatsEngine.compute(other, true)[0]));
+        Instances both = new Instances(data);
+        both.addAll(other);
+        weka.experiment.Stats expected = both.attributeStats(0).numericStats;
+        assertEquals(expected.mean, combined.mean, 1e-9);
+        assertEquals(expected.stdDev, combined.stdDev, 1e-9);
+        assertEquals(expected.min, combined.min, 0);
+        assertEquals(80000, combined.quantiles.count());
+        assertQuantiles(both.attributeToDoubleArray(0), combined.quantiles);
+    }
+
+    @Test
+    public void plainStatsSkipSketches()
+    {
+        Instances data = ColumnStatsEngineTest.createDataset(5000, 7);
+        ColumnStatsEngine.ColumnStats[] plain = ColumnStatsEngine.getStats(data);
+        assertNull(plain[1].quantiles);
+        assertTrue(Double.isNaN(plain[1].quantile(0.5)));
+        assertEquals(-1, plain[1].distinctCount());
+        assertNull(ColumnStatsEngine.combine(Arrays.asList(plain[1], plain[1])).quantiles);
+
+        ColumnStatsEngine.ColumnStats[] sketched = ColumnStatsEngine.getStats(data, true);
+        assertNotNull(sketched[1].quantiles);
+        assertSame(sketched, ColumnStatsEngine.getStats(data));
+    }
+
+    private static void assertQuantiles(double[] values, QuantileSketch sketch)
+    {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[] { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99 }) {
+            double estimate = sketch.quantile(q);
+            double rank = (double) lowerBound(sorted, estimate) / sorted.length;
+            double upperRank = (double) lowerBound(sorted, Math.nextUp(estimate)) / sorted.length;
+            assertTrue("q=" + q + " rank " + rank, rank <= q + RANK_ERROR && upperRank >= q - RANK_ERROR);
+        }
+        assertEquals(sorted[0], sketch.quantile(0), 0);
+        assertEquals(sorted[sorted.length - 1], sketch.quantile(1), 0);
+    }
+
+    private static int lowerBound(double[] sorted, double value)
+    {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && sorted[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,42 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import weka.core.Instances;
+
+/**
+ * Checks result lookup, invalidation and eviction.
+ */
+public class ResultCacheTest
+{
+    @Test
+    public void reusesResultsUntilInvalidated()
+    {
+        Instances data = ColumnStatsEngineTest.createDataset(10, 1);
+        Instances other = new Instances(data);
+        ResultCache cache = new ResultCache(3);
+        Object stats = new Object();
+        cache.put(ResultCache.key(data, 1, "compare", 0, 1), stats);
+
+        assertSame(stats, cache.get(ResultCache.key(data, 1, "compare", 0, 1)));
+        assertNull(cache.get(ResultCache.key(data, 1, "compare", 1, 0)));
+        assertNull(cache.get(ResultCache.key(data, 2, "compare", 0, 1)));
+        assertNull(cache.get(ResultCache.key(other, 1, "compare", 0, 1)));
+
+        cache.put(ResultCache.key(other, 1, "statistics"), new Object());
+        cache.invalidate(data);
+        assertNull(cache.get(ResultCache.key(data, 1, "compare", 0, 1)));
+        assertEquals(1, cache.size());
+
+        for (int i = 0; i < 5; i++) {
+            cache.put(ResultCache.key(other, 1, "histogram", i), i);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(4, (int) cache.<Integer>get(ResultCache.key(other, 1, "histogram", 4)));
+        assertNull(cache.get(ResultCache.key(other, 1, "statistics")));
+    }
+}
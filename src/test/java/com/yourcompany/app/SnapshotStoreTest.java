@@ -0,0 +1,68 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.core.Instances;
+
+/**
+ * Checks that snapshots reload what was parsed and are ignored once stale.
+ */
+public class SnapshotStoreTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reloadsParsedColumnsUntilTheFileChanges() throws Exception
+    {
+        File csv = folder.newFile("data.csv");
+        try (PrintWriter writer = new PrintWriter(csv, "UTF-8")) {
+            writer.println("Width,Code,Label");
+            for (int i = 0; i < 5000; i++) {
+                String width = i % 13 == 0 ? "?" : String.valueOf(i * 0.25);
+                writer.println(width + "," + (i % 7 == 0 ? "?" : "c" + (i % 3)) + ",label " + (i % 4));
+            }
+        }
+        File directory = folder.newFolder("snapshots");
+        SnapshotStore store = new SnapshotStore(directory, SnapshotStore.DEFAULT_MAX_BYTES);
+        assertNull(store.read(csv));
+
+        Instances parsed = store.load(csv).asInstances();
+        ColumnarDataset snapshot = store.read(csv);
+        assertNotNull(snapshot);
+        Instances reloaded = snapshot.asInstances();
+        assertEquals(parsed.relationName(), reloaded.relationName());
+        assertEquals(parsed.numInstances(), reloaded.numInstances());
+        assertEquals(parsed.toString(), reloaded.toString());
+
+        try (FileWriter writer = new FileWriter(csv, true)) {
+            writer.write("1.5,c1,label 0\n");
+        }
+        assertNull(store.read(csv));
+        assertEquals(5001, store.load(csv).numRows());
+        assertEquals(5001, store.read(csv).numRows());
+
+        truncate(directory.listFiles()[0]);
+        assertNull(store.read(csv));
+        assertEquals(5001, store.load(csv).numRows());
+    }
+
+    private static void truncate(File file) throws IOException
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+    }
+}
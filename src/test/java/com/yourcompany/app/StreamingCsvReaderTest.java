@@ -0,0 +1,115 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.core.Instances;
+
+/**
+ * Unit test for the batched CSV reader.
+ */
+public class StreamingCsvReaderTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeCsv(int numRows) throws IOException
+    {
+        File file = folder.newFile("iris.csv");
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("Id,SepalLengthCm,Species");
+            String[] species = { "Iris-setosa", "Iris-versicolor", "Iris-virginica" };
+            for (int i = 0; i < numRows; i++) {
+                writer.println(i + "," + (i % 7 == 0 ? "?" : String.valueOf(4 + (i % 40) / 10.0)) + ","
+                        + species[i % 3]);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void readsAllRowsInBatches() throws IOException
+    {
+        try (StreamingCsvReader reader = new StreamingCsvReader(writeCsv(2500), 100)) {
+            Instances structure = reader.getStructure();
+            assertTrue(structure.attribute(0).isNumeric());
+            assertTrue(structure.attribute(2).isNominal());
+            assertEquals(3, structure.attribute(2).numValues());
+
+            int batches = 0;
+            Instances batch;
+            while ((batch = reader.nextBatch(1000)) != null) {
+                assertTrue(batch.numInstances() <= 1000);
+                batches++;
+            }
+            assertEquals(3, batches);
+            assertEquals(2500, reader.rowsRead());
+            assertNull(reader.nextBatch(1000));
+        }
+    }
+
+    @Test
+    public void streamedStatsMatchInMemoryStats() throws IOException
+    {
+        File file = writeCsv(5000);
+        Instances all;
+        try (StreamingCsvReader reader = new StreamingCsvReader(file)) {
+            all = reader.nextBatch(10000);
+        }
+        ColumnStatsEngine.ColumnStats[] expected = ColumnStatsEngine.compute(all);
+        ColumnStatsEngine.ColumnStats[] streamed;
+        try (StreamingCsvReader reader = new StreamingCsvReader(file)) {
+            streamed = ColumnStatsEngine.compute(reader, 333);
+        }
+        for (int c = 0; c < 2; c++) {
+            assertEquals(expected[c].mean, streamed[c].mean, 1e-9);
+            assertEquals(expected[c].stdDev, streamed[c].stdDev, 1e-9);
+            assertEquals(expected[c].missingCount, streamed[c].missingCount);
+        }
+        assertArrayEquals(expected[2].nominalCounts, streamed[2].nominalCounts);
+    }
+
+    @Test
+    public void classValueOutsideSampleIsKeptForTraining() throws IOException
+    {
+        File file = folder.newFile("late-class.csv");
+        StringBuilder csv = new StringBuilder("x,label\r\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append(i).append(',').append(i == 40 ? "late" : "early").append("\r\n");
+        }
+        Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, 10, true)) {
+            Instances batch = reader.nextBatch(100);
+            assertEquals(1, batch.classIndex());
+            assertEquals(2, batch.numClasses());
+            assertEquals("late", batch.instance(40).stringValue(1));
+            assertEquals(0, reader.unknownValues());
+        }
+
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, 10)) {
+            Instances batch = reader.nextBatch(100);
+            assertEquals(-1, batch.classIndex());
+            assertTrue(batch.instance(40).isMissing(1));
+            assertEquals(1, reader.unknownValues());
+        }
+
+        try (StreamingCsvReader reader = new StreamingCsvReader(file, 100)) {
+            while (reader.nextBatch(7) != null) {
+            }
+            assertEquals(file.length(), reader.bytesRead());
+        }
+    }
+}
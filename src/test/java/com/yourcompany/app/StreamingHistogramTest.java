@@ -0,0 +1,69 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit test for the one-pass histogram.
+ */
+public class StreamingHistogramTest
+{
+    @Test
+    public void binsMatchExactCountsWhenRangeGrows()
+    {
+        Random random = new Random(14);
+        StreamingHistogram histogram = new StreamingHistogram();
+        int n = 200_000;
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Later values spread wider, so the initial range has to grow on both sides.
+            values[i] = random.nextGaussian() * (i < 10_000 ? 1 : 50);
+            histogram.add(values[i]);
+        }
+        histogram.add(Double.NaN);
+
+        assertEquals(n, histogram.count());
+        assertEquals(1, histogram.skipped());
+        StreamingHistogram.Bins bins = histogram.bins(20);
+        double min = Arrays.stream(values).min().getAsDouble();
+        double max = Arrays.stream(values).max().getAsDouble();
+        assertEquals(min, bins.edges[0], 0);
+        assertEquals(max, bins.edges[20], 0);
+        long total = 0;
+        for (int b = 0; b < 20; b++) {
+            long exact = 0;
+            for (double value : values) {
+                if (value >= bins.edges[b] && (value < bins.edges[b + 1] || b == 19)) {
+                    exact++;
+                }
+            }
+            // Values are placed by fine bin, so only those near an edge may land next door.
+            assertEquals(exact, bins.counts[b], n / 100);
+            total += bins.counts[b];
+        }
+        assertEquals(n, total);
+    }
+
+    @Test
+    public void suggestsBinsFromSpread()
+    {
+        StreamingHistogram histogram = new StreamingHistogram();
+        for (int i = 0; i < 1000; i++) {
+            histogram.add(i % 100);
+        }
+        assertEquals(49.5, histogram.quantile(0.5), 1);
+        int suggested = histogram.suggestedBins();
+        assertTrue(suggested > 1 && suggested <= 200);
+
+        StreamingHistogram constant = new StreamingHistogram();
+        constant.add(3);
+        constant.add(3);
+        assertEquals(1, constant.suggestedBins());
+        assertEquals(2, constant.bins(5).counts[0]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.yourcompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+/**
+ * Unit test for cancelling background tasks.
+ */
+public class TaskExecutorTest
+{
+    @Test
+    public void cancelledTaskCountsAsRunningUntilItStops() throws Exception
+    {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        TaskExecutor executor = new TaskExecutor(messages::add);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("Training", progress -> {
+            started.countDown();
+            // Like J48, ignores the interrupt until its step is done.
+            while (release.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+            progress.checkCancelled();
+            return null;
+        }, result -> messages.add("succeeded"));
+        started.await();
+
+        executor.cancelAll();
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        assertEquals(1, executor.runningCount());
+        assertEquals("Cancel requested; Training stops when its current step finishes.", messages.get(0));
+
+        release.countDown();
+        for (int i = 0; i < 500 && executor.runningCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        assertEquals(0, executor.runningCount());
+        assertEquals(2, messages.size());
+        assertEquals("Training stopped.", messages.get(1));
+        executor.shutdown();
+    }
+}